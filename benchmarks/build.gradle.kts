@@ -0,0 +1,54 @@
+plugins {
+    id("me.champeau.jmh")
+}
+
+dependencies {
+    // Benchmarks run headless, so everything usually provided by the platform has to be on the classpath
+    implementation(projects.viabackwardsCommon)
+    implementation(libs.viaver)
+    implementation(libs.netty)
+    implementation(libs.guava)
+    implementation(libs.checkerQual)
+
+    testImplementation(libs.junit)
+    testRuntimeOnly(libs.junitLauncher)
+}
+
+jmh {
+    jmhVersion.set(libs.versions.jmh)
+    // Reports gc.alloc.rate.norm, i.e. the bytes allocated per translated packet
+    profilers.add("gc")
+    resultFormat.set("JSON")
+    // ./gradlew :viabackwards-benchmarks:jmh -Pcapture=/path/to/session.vbcap
+    findProperty("capture")?.let { jvmArgsAppend.add("-Dviabackwards.capture=${file(it)}") }
+    findProperty("jmhIncludes")?.let { includes.add(it.toString()) }
+}
+
+// ./gradlew :viabackwards-benchmarks:replay -Pcapture=/path/to/session.vbcap -PclientVersion=1.12.2 [-Prepeat=5] [-Pconnections=100]
+tasks.register<JavaExec>("replay") {
+    group = "benchmark"
+    description = "Replays a packet capture through the protocol path to the given client version"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.viaversion.viabackwards.benchmarks.CaptureReplay")
+    maxHeapSize = "2G"
+    args(
+        findProperty("capture")?.let { file(it) } ?: "",
+        findProperty("clientVersion") ?: "1.12.2",
+        findProperty("repeat") ?: "3",
+        findProperty("connections") ?: "1"
+    )
+}
+
+// ./gradlew :viabackwards-benchmarks:record -PlistenPort=25566 -Pserver=localhost:25565 -PserverVersion=1.21 -Pcapture=/path/to/session.vbcap
+tasks.register<JavaExec>("record") {
+    group = "benchmark"
+    description = "Records the packets of a connection through a proxy in front of an offline mode server"
+    classpath = sourceSets.main.get().runtimeClasspath
+    mainClass.set("com.viaversion.viabackwards.benchmarks.capture.CaptureRecorder")
+    args(
+        findProperty("listenPort") ?: "25566",
+        findProperty("server") ?: "localhost:25565",
+        findProperty("serverVersion") ?: "1.21",
+        findProperty("capture")?.let { file(it) } ?: "session.vbcap"
+    )
+}
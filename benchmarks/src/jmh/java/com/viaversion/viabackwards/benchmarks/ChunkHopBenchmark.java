@@ -0,0 +1,83 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.benchmarks.capture.PacketCapture;
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Translates the captured chunks through a single protocol, the one outputting the given client version.
+ * The chunks are translated to that protocol's input version beforehand, so only the hop itself is measured.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = "-Xmx2G")
+public class ChunkHopBenchmark {
+
+    @Param("")
+    public String capture;
+    @Param({
+        "1.20.5", "1.20.3", "1.20.2", "1.20", "1.19.4", "1.19.3", "1.19.1", "1.19", "1.18.2", "1.18", "1.17.1", "1.17",
+        "1.16.4", "1.16.3", "1.16.2", "1.16.1", "1.16", "1.15.2", "1.15.1", "1.15", "1.14.4", "1.14.3", "1.14.2", "1.14.1",
+        "1.14", "1.13.2", "1.13.1", "1.13", "1.12.2"
+    })
+    public String clientVersion;
+    private ChunkWorkload workload;
+    private int index;
+
+    @Setup(Level.Trial)
+    public void setup() throws Exception {
+        final PacketCapture packetCapture = ChunkWorkload.loadCapture(capture);
+        final ProtocolVersion client = ProtocolVersion.getClosest(clientVersion);
+        HeadlessVia.init(packetCapture.serverVersion());
+
+        // The first path entry is the protocol right next to the client, its output is the version on its server side
+        final List<ProtocolPathEntry> path = HeadlessVia.awaitProtocolPath(client, packetCapture.serverVersion());
+        workload = ChunkWorkload.create(packetCapture, client, path.get(0).outputProtocolVersion());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        workload.close();
+    }
+
+    @Benchmark
+    public int translateChunk() throws Exception {
+        return workload.translate(index++);
+    }
+}
@@ -0,0 +1,193 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.benchmarks.capture.CapturedPacket;
+import com.viaversion.viabackwards.benchmarks.capture.PacketCapture;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import io.netty.buffer.ByteBuf;
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Replays the clientbound packets of a capture through the protocol path to a given client version, without a live
+ * server or client, and reports throughput and GC activity.
+ * <p>
+ * Every simulated connection has its own user connection with all of its storages and trackers, so per connection
+ * state is included. Serverbound packets are skipped, as they were recorded in the server's version.
+ * <p>
+ * Usage: {@code CaptureReplay <capture> <client version> [repeat] [connections]}
+ */
+public final class CaptureReplay {
+
+    private final PacketCapture capture;
+    private final ProtocolVersion clientVersion;
+    private final int connections;
+    private long packets;
+    private long cancelled;
+    private long failed;
+    private long bytesIn;
+    private long bytesOut;
+
+    public CaptureReplay(final PacketCapture capture, final ProtocolVersion clientVersion, final int connections) {
+        this.capture = capture;
+        this.clientVersion = clientVersion;
+        this.connections = connections;
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 2) {
+            System.err.println("Usage: CaptureReplay <capture> <client version> [repeat] [connections]");
+            System.exit(1);
+            return;
+        }
+
+        final PacketCapture capture = PacketCapture.read(Path.of(args[0]));
+        final ProtocolVersion clientVersion = ProtocolVersion.getClosest(args[1]);
+        if (clientVersion == null) {
+            throw new IllegalArgumentException("Unknown version " + args[1]);
+        }
+
+        final int repeat = args.length > 2 ? Integer.parseInt(args[2]) : 1;
+        final int connections = args.length > 3 ? Integer.parseInt(args[3]) : 1;
+        System.out.println("Replaying " + capture.packets().size() + " packets from " + capture.serverVersion() + " to "
+            + clientVersion + " over " + connections + " connection(s), " + repeat + " time(s)");
+
+        final CaptureReplay replay = new CaptureReplay(capture, clientVersion, connections);
+        // First run only warms up the JIT
+        replay.run();
+        for (int i = 0; i < repeat; i++) {
+            replay.reset();
+            replay.printReport(i + 1, replay.run());
+        }
+        System.exit(0);
+    }
+
+    /**
+     * Replays the capture once over fresh connections.
+     *
+     * @return measured statistics
+     * @throws Exception if setting up a connection fails
+     */
+    public RunStatistics run() throws Exception {
+        final List<TranslationHarness> harnesses = new ArrayList<>(connections);
+        for (int i = 0; i < connections; i++) {
+            harnesses.add(new TranslationHarness(clientVersion, capture.serverVersion()));
+        }
+
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        final long gcCountBefore = gcCount();
+        final long gcTimeBefore = gcTime();
+        final long allocatedBefore = allocatedBytes(threadBean);
+        final long start = System.nanoTime();
+        for (final CapturedPacket packet : capture.packets()) {
+            if (!packet.clientbound()) {
+                continue;
+            }
+
+            for (final TranslationHarness harness : harnesses) {
+                replay(harness, packet);
+            }
+        }
+
+        final long nanos = System.nanoTime() - start;
+        final RunStatistics statistics = new RunStatistics(nanos, gcCount() - gcCountBefore, gcTime() - gcTimeBefore,
+            allocatedBefore != -1 ? allocatedBytes(threadBean) - allocatedBefore : -1);
+        for (final TranslationHarness harness : harnesses) {
+            harness.close();
+        }
+        return statistics;
+    }
+
+    private void replay(final TranslationHarness harness, final CapturedPacket packet) {
+        packets++;
+        bytesIn += packet.data().length;
+        harness.syncState(packet.state());
+        try {
+            final ByteBuf translated = harness.translateClientbound(packet.data());
+            if (translated != null) {
+                bytesOut += translated.readableBytes();
+            } else {
+                cancelled++;
+            }
+        } catch (final Exception e) {
+            // Usually caused by missing serverbound interaction, count and move on
+            failed++;
+        }
+    }
+
+    private void reset() {
+        packets = 0;
+        cancelled = 0;
+        failed = 0;
+        bytesIn = 0;
+        bytesOut = 0;
+    }
+
+    private void printReport(final int run, final RunStatistics statistics) {
+        final double seconds = statistics.nanos() / 1_000_000_000D;
+        System.out.printf(Locale.ROOT, "Run %d: %.2fs, %.0f packets/s, %.2f MiB/s in, %.2f MiB/s out%n",
+            run, seconds, packets / seconds, bytesIn / seconds / (1024 * 1024), bytesOut / seconds / (1024 * 1024));
+        System.out.printf(Locale.ROOT, "  %d packets, %d cancelled, %d failed%n", packets, cancelled, failed);
+        System.out.printf(Locale.ROOT, "  GC: %d collections, %d ms", statistics.gcCount(), statistics.gcMillis());
+        if (statistics.allocatedBytes() != -1) {
+            System.out.printf(Locale.ROOT, ", %.2f MiB allocated, %.0f B/packet",
+                statistics.allocatedBytes() / (1024D * 1024D), (double) statistics.allocatedBytes() / packets);
+        }
+        System.out.println();
+    }
+
+    private static long gcCount() {
+        long count = 0;
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            count += Math.max(0, bean.getCollectionCount());
+        }
+        return count;
+    }
+
+    private static long gcTime() {
+        long time = 0;
+        for (final GarbageCollectorMXBean bean : ManagementFactory.getGarbageCollectorMXBeans()) {
+            time += Math.max(0, bean.getCollectionTime());
+        }
+        return time;
+    }
+
+    private static long allocatedBytes(final ThreadMXBean threadBean) {
+        if (threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean && sunThreadBean.isThreadAllocatedMemorySupported()) {
+            return sunThreadBean.getCurrentThreadAllocatedBytes();
+        }
+        return -1;
+    }
+
+    /**
+     * Statistics of a single run.
+     *
+     * @param nanos          wall time of the run
+     * @param gcCount        number of garbage collections during the run
+     * @param gcMillis       time spent in garbage collection during the run
+     * @param allocatedBytes bytes allocated by the replaying thread, or -1 if not supported
+     */
+    public record RunStatistics(long nanos, long gcCount, long gcMillis, long allocatedBytes) {
+    }
+}
@@ -0,0 +1,177 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.benchmarks.capture.CapturedPacket;
+import com.viaversion.viabackwards.benchmarks.capture.PacketCapture;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Types;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.logging.Level;
+
+/**
+ * Chunk packets of a capture together with a harness primed by all other clientbound packets of the capture.
+ * Every chunk is a group of packets, as a single server chunk may be split into several packets by earlier hops.
+ */
+public final class ChunkWorkload implements AutoCloseable {
+
+    public static final String CAPTURE_PROPERTY = "viabackwards.capture";
+    private static final String[] CHUNK_PACKETS = {"LEVEL_CHUNK_WITH_LIGHT", "LEVEL_CHUNK"};
+    private final TranslationHarness harness;
+    private final List<byte[][]> chunks;
+    private final long chunkBytes;
+
+    private ChunkWorkload(final TranslationHarness harness, final List<byte[][]> chunks) {
+        this.harness = harness;
+        this.chunks = chunks;
+        long chunkBytes = 0;
+        for (final byte[][] chunk : chunks) {
+            for (final byte[] packet : chunk) {
+                chunkBytes += packet.length;
+            }
+        }
+        this.chunkBytes = chunkBytes;
+    }
+
+    public static PacketCapture loadCapture(final String path) throws IOException {
+        final String capturePath = !path.isEmpty() ? path : System.getProperty(CAPTURE_PROPERTY);
+        if (capturePath == null || capturePath.isEmpty()) {
+            throw new IllegalArgumentException("No capture given, pass one with -p capture=<file> or -D" + CAPTURE_PROPERTY + "=<file>");
+        }
+        return PacketCapture.read(Path.of(capturePath));
+    }
+
+    /**
+     * Creates a workload translating chunks from the input version to the client version. If the input version
+     * is older than the capture's server version, the captured packets are first translated to the input version.
+     *
+     * @param capture       capture to take packets from
+     * @param clientVersion client version to translate to
+     * @param inputVersion  version the workload's chunk packets are in
+     * @return chunk workload
+     * @throws Exception if translating to the input version fails
+     */
+    public static ChunkWorkload create(final PacketCapture capture, final ProtocolVersion clientVersion, final ProtocolVersion inputVersion) throws Exception {
+        final ProtocolVersion serverVersion = capture.serverVersion();
+        final TranslationHarness upstream = inputVersion != serverVersion ? new TranslationHarness(inputVersion, serverVersion) : null;
+        final TranslationHarness harness = new TranslationHarness(clientVersion, inputVersion);
+        final TranslationHarness serverSide = upstream != null ? upstream : harness;
+        final int[] chunkIds = new int[CHUNK_PACKETS.length];
+        for (int i = 0; i < CHUNK_PACKETS.length; i++) {
+            chunkIds[i] = serverSide.serverClientboundPacketId(CHUNK_PACKETS[i]);
+        }
+
+        final List<byte[][]> chunks = new ArrayList<>();
+        for (final CapturedPacket packet : capture.packets()) {
+            if (!packet.clientbound()) {
+                continue;
+            }
+
+            final List<byte[]> packets;
+            if (upstream != null) {
+                upstream.syncState(packet.state());
+                packets = translateOrSkip(upstream, packet.data());
+            } else {
+                packets = List.of(packet.data());
+            }
+
+            if (packet.state() == State.PLAY && isChunk(packet.data(), chunkIds)) {
+                if (!packets.isEmpty()) {
+                    chunks.add(packets.toArray(new byte[0][]));
+                }
+                continue;
+            }
+
+            // Everything else only sets up the connection's state
+            harness.syncState(packet.state());
+            for (final byte[] data : packets) {
+                translateOrSkip(harness, data);
+            }
+        }
+
+        if (upstream != null) {
+            upstream.close();
+        }
+        if (chunks.isEmpty()) {
+            harness.close();
+            throw new IllegalArgumentException("Capture does not contain any chunk packets");
+        }
+        harness.syncState(State.PLAY);
+        return new ChunkWorkload(harness, chunks);
+    }
+
+    private static List<byte[]> translateOrSkip(final TranslationHarness harness, final byte[] data) {
+        try {
+            return harness.translateClientboundCollecting(data);
+        } catch (final Exception e) {
+            Via.getPlatform().getLogger().log(Level.FINE, "Skipping untranslatable packet", e);
+            return List.of();
+        }
+    }
+
+    private static boolean isChunk(final byte[] data, final int[] chunkIds) {
+        final ByteBuf buf = Unpooled.wrappedBuffer(data);
+        final int id = Types.VAR_INT.readPrimitive(buf);
+        for (final int chunkId : chunkIds) {
+            if (chunkId != -1 && id == chunkId) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Translates all packets of the given chunk.
+     *
+     * @param index index of the chunk, wrapped around the number of chunks
+     * @return number of translated bytes of the last packet, or -1 if it was cancelled
+     * @throws Exception if translation fails
+     */
+    public int translate(final int index) throws Exception {
+        int bytes = -1;
+        for (final byte[] packet : chunks.get(index % chunks.size())) {
+            final ByteBuf translated = harness.translateClientbound(packet);
+            bytes = translated != null ? translated.readableBytes() : -1;
+        }
+        return bytes;
+    }
+
+    public TranslationHarness harness() {
+        return harness;
+    }
+
+    public int chunkCount() {
+        return chunks.size();
+    }
+
+    public long chunkBytes() {
+        return chunkBytes;
+    }
+
+    @Override
+    public void close() {
+        harness.close();
+    }
+}
@@ -0,0 +1,224 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.ProtocolPipeline;
+import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypesProvider;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.connection.UserConnectionImpl;
+import com.viaversion.viaversion.exception.CancelException;
+import com.viaversion.viaversion.protocol.ProtocolPipelineImpl;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import io.netty.channel.ChannelDuplexHandler;
+import io.netty.channel.ChannelHandlerContext;
+import io.netty.channel.ChannelInboundHandlerAdapter;
+import io.netty.channel.ChannelOutboundHandlerAdapter;
+import io.netty.channel.ChannelPromise;
+import io.netty.channel.embedded.EmbeddedChannel;
+import io.netty.util.ReferenceCountUtil;
+import java.util.ArrayList;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * A single connection's protocol pipeline between a client and server version, driven without a network.
+ * <p>
+ * Packets sent by protocol handlers themselves (e.g. the light packet split off a 1.18 chunk) end up in a sink
+ * and can optionally be collected to be fed into a further harness.
+ */
+public final class TranslationHarness implements AutoCloseable {
+
+    private final List<Protocol> protocols = new ArrayList<>();
+    private final ProtocolVersion clientVersion;
+    private final ProtocolVersion serverVersion;
+    private final EmbeddedChannel channel;
+    private final UserConnection user;
+    private final Sink sink;
+    private final ByteBuf buffer = Unpooled.buffer();
+
+    public TranslationHarness(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) {
+        HeadlessVia.init(serverVersion);
+        this.clientVersion = clientVersion;
+        this.serverVersion = serverVersion;
+
+        // Protocol handlers write extra packets into the encoder's and read them from the decoder's context
+        this.sink = new Sink();
+        this.channel = new EmbeddedChannel(new ChannelInboundHandlerAdapter());
+        channel.pipeline().addFirst(Via.getManager().getInjector().getEncoderName(), new ChannelOutboundHandlerAdapter());
+        channel.pipeline().addFirst("sink", sink);
+        channel.pipeline().addLast(Via.getManager().getInjector().getDecoderName(), new ChannelInboundHandlerAdapter());
+        channel.pipeline().addLast("inbound-sink", new Sink());
+
+        this.user = new UserConnectionImpl(channel, false);
+        final ProtocolPipeline pipeline = new ProtocolPipelineImpl(user);
+        user.getProtocolInfo().setProtocolVersion(clientVersion);
+        user.getProtocolInfo().setServerProtocolVersion(serverVersion);
+        user.getProtocolInfo().setClientState(State.LOGIN);
+        user.getProtocolInfo().setServerState(State.LOGIN);
+
+        // Same order as set up on handshake
+        for (final ProtocolPathEntry entry : HeadlessVia.awaitProtocolPath(clientVersion, serverVersion)) {
+            protocols.add(entry.protocol());
+        }
+        pipeline.add(protocols);
+        pipeline.add(Via.getManager().getProtocolManager().getBaseProtocol(serverVersion));
+    }
+
+    /**
+     * Returns the id of the given clientbound play packet in the server version's protocol.
+     *
+     * @param typeName name of the packet type, e.g. LEVEL_CHUNK_WITH_LIGHT
+     * @return packet id, or -1 if not present in the server version
+     */
+    public int serverClientboundPacketId(final String typeName) {
+        if (protocols.isEmpty()) {
+            throw new IllegalStateException("No protocols between " + clientVersion + " and " + serverVersion);
+        }
+
+        final PacketTypesProvider<?, ?, ?, ?> provider = protocols.get(protocols.size() - 1).getPacketTypesProvider();
+        final ClientboundPacketType type = provider.unmappedClientboundType(State.PLAY, typeName);
+        return type != null ? type.getId() : -1;
+    }
+
+    /**
+     * Applies the state the server was in when sending a captured packet. Clients before 1.20.2 have their
+     * state managed by the protocols themselves, newer clients would otherwise need their acknowledgements replayed.
+     *
+     * @param state recorded server state
+     */
+    public void syncState(final State state) {
+        user.getProtocolInfo().setServerState(state);
+        if (clientVersion.newerThanOrEqualTo(ProtocolVersion.v1_20_2)) {
+            user.getProtocolInfo().setClientState(state);
+        }
+    }
+
+    /**
+     * Translates a clientbound packet.
+     *
+     * @param data packet id and payload in the server version
+     * @return buffer holding the translated packet, only valid until the next call, or null if cancelled
+     * @throws Exception if translation fails
+     */
+    public @Nullable ByteBuf translateClientbound(final byte[] data) throws Exception {
+        buffer.clear().writeBytes(data);
+        try {
+            user.transformClientbound(buffer, CancelException::generate);
+        } catch (final CancelException e) {
+            return null;
+        } finally {
+            channel.runPendingTasks();
+        }
+        return buffer;
+    }
+
+    /**
+     * Translates a clientbound packet and returns all resulting packets, including ones sent by handlers.
+     *
+     * @param data packet id and payload in the server version
+     * @return translated packets in the order they would have been sent
+     * @throws Exception if translation fails
+     */
+    public List<byte[]> translateClientboundCollecting(final byte[] data) throws Exception {
+        final List<byte[]> output = new ArrayList<>();
+        sink.collect(output);
+        try {
+            final ByteBuf translated = translateClientbound(data);
+            if (translated != null) {
+                output.add(toArray(translated));
+            }
+        } finally {
+            sink.collect(null);
+        }
+        return output;
+    }
+
+    public UserConnection user() {
+        return user;
+    }
+
+    public List<Protocol> protocols() {
+        return protocols;
+    }
+
+    public ProtocolVersion clientVersion() {
+        return clientVersion;
+    }
+
+    public ProtocolVersion serverVersion() {
+        return serverVersion;
+    }
+
+    /**
+     * Returns the number of packets sent by protocol handlers instead of being returned from translation.
+     *
+     * @return number of extra packets sent
+     */
+    public long sentPackets() {
+        return sink.packets;
+    }
+
+    @Override
+    public void close() {
+        buffer.release();
+        channel.close();
+    }
+
+    private static byte[] toArray(final ByteBuf buf) {
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.getBytes(buf.readerIndex(), bytes);
+        return bytes;
+    }
+
+    private static final class Sink extends ChannelDuplexHandler {
+
+        private List<byte[]> collected;
+        private long packets;
+
+        void collect(@Nullable final List<byte[]> collected) {
+            this.collected = collected;
+        }
+
+        @Override
+        public void write(final ChannelHandlerContext ctx, final Object msg, final ChannelPromise promise) {
+            consume(msg);
+            promise.setSuccess();
+        }
+
+        @Override
+        public void channelRead(final ChannelHandlerContext ctx, final Object msg) {
+            consume(msg);
+        }
+
+        private void consume(final Object msg) {
+            packets++;
+            if (collected != null && msg instanceof ByteBuf buf) {
+                collected.add(toArray(buf));
+            }
+            ReferenceCountUtil.release(msg);
+        }
+    }
+}
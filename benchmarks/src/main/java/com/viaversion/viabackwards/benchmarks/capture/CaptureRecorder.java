@@ -0,0 +1,315 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.capture;
+
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypesProvider;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Recording proxy between a client and a server of the same version. All packets of the first connection that logs in
+ * are recorded from the start of the login state, and returned as a capture once that connection is closed. Status
+ * pings are forwarded without being recorded.
+ * <p>
+ * Frames are read from the raw stream, so the server has to run in offline mode with compression disabled
+ * ({@code online-mode=false} and {@code network-compression-threshold=-1}). Only 1.20.2 and newer servers are supported,
+ * as the state changes are tracked by the packets of the configuration state.
+ * <p>
+ * Usage: {@code CaptureRecorder <listen port> <server host[:port]> <server version> <output file>}
+ */
+public final class CaptureRecorder {
+
+    // Login packet ids are the same in every version with a configuration state
+    private static final int LOGIN_ENCRYPTION_REQUEST = 0x01;
+    private static final int LOGIN_SUCCESS = 0x02;
+    private static final int LOGIN_COMPRESSION = 0x03;
+    private static final int LOGIN_ACKNOWLEDGED = 0x03;
+    private static final int HANDSHAKE_STATUS = 1;
+    private final ProtocolVersion serverVersion;
+    private final int clientboundFinishConfiguration;
+    private final int clientboundStartConfiguration;
+    private final int serverboundFinishConfiguration;
+    private final int serverboundConfigurationAcknowledged;
+    private final List<CapturedPacket> packets = new ArrayList<>();
+    private volatile Exception failure;
+    private long startMillis;
+
+    public CaptureRecorder(final ProtocolVersion serverVersion) {
+        if (serverVersion.olderThan(ProtocolVersion.v1_20_2)) {
+            throw new IllegalArgumentException("Recording requires a 1.20.2 or newer server, got " + serverVersion);
+        }
+
+        this.serverVersion = serverVersion;
+
+        // The protocol to the previous version knows the server version's packet types
+        HeadlessVia.init(serverVersion);
+        final List<ProtocolPathEntry> path = HeadlessVia.awaitProtocolPath(previousVersion(serverVersion), serverVersion);
+        final PacketTypesProvider<?, ?, ?, ?> provider = path.get(path.size() - 1).protocol().getPacketTypesProvider();
+        this.clientboundFinishConfiguration = provider.unmappedClientboundType(State.CONFIGURATION, "FINISH_CONFIGURATION").getId();
+        this.clientboundStartConfiguration = provider.unmappedClientboundType(State.PLAY, "START_CONFIGURATION").getId();
+        this.serverboundFinishConfiguration = provider.mappedServerboundType(State.CONFIGURATION, "FINISH_CONFIGURATION").getId();
+        this.serverboundConfigurationAcknowledged = provider.mappedServerboundType(State.PLAY, "CONFIGURATION_ACKNOWLEDGED").getId();
+    }
+
+    public static void main(final String[] args) throws Exception {
+        if (args.length < 4) {
+            System.err.println("Usage: CaptureRecorder <listen port> <server host[:port]> <server version> <output file>");
+            System.exit(1);
+            return;
+        }
+
+        final int port = Integer.parseInt(args[0]);
+        final int separator = args[1].lastIndexOf(':');
+        final InetSocketAddress server = separator == -1
+            ? new InetSocketAddress(args[1], 25565)
+            : new InetSocketAddress(args[1].substring(0, separator), Integer.parseInt(args[1].substring(separator + 1)));
+        final ProtocolVersion serverVersion = ProtocolVersion.getClosest(args[2]);
+        if (serverVersion == null) {
+            throw new IllegalArgumentException("Unknown version " + args[2]);
+        }
+
+        final CaptureRecorder recorder = new CaptureRecorder(serverVersion);
+        System.out.println("Listening on port " + port + ", join with a " + serverVersion + " client to start recording");
+        final PacketCapture capture = recorder.record(port, server);
+        capture.write(Path.of(args[3]));
+        System.out.println("Wrote " + capture.packets().size() + " packets to " + args[3]);
+        System.exit(0);
+    }
+
+    /**
+     * Accepts connections on the given port and forwards them to the server until a recorded connection is closed.
+     *
+     * @param port   port to listen on
+     * @param server address of the server
+     * @return capture of the first connection that logged in
+     * @throws IOException if listening or connecting fails, or if the connection could not be recorded
+     */
+    public PacketCapture record(final int port, final InetSocketAddress server) throws IOException {
+        try (final ServerSocket serverSocket = new ServerSocket(port)) {
+            while (true) {
+                final Socket client = serverSocket.accept();
+                final Socket upstream;
+                try {
+                    upstream = new Socket(server.getAddress(), server.getPort());
+                } catch (final IOException e) {
+                    client.close();
+                    throw e;
+                }
+
+                if (relay(client, upstream)) {
+                    if (failure != null) {
+                        throw new IOException("Failed to record connection", failure);
+                    }
+                    return new PacketCapture(serverVersion, new ArrayList<>(packets));
+                }
+            }
+        }
+    }
+
+    private boolean relay(final Socket client, final Socket upstream) throws IOException {
+        final DataInputStream clientIn = new DataInputStream(new BufferedInputStream(client.getInputStream()));
+        final DataInputStream serverIn = new DataInputStream(new BufferedInputStream(upstream.getInputStream()));
+        final OutputStream clientOut = new BufferedOutputStream(client.getOutputStream());
+        final OutputStream serverOut = new BufferedOutputStream(upstream.getOutputStream());
+
+        // The handshake decides whether the connection is recorded
+        final int length = readVarInt(clientIn);
+        if (length == -1) {
+            closeQuietly(client, upstream);
+            return false;
+        }
+
+        final byte[] handshake = new byte[length];
+        clientIn.readFully(handshake);
+        forward(serverOut, handshake);
+
+        final int[] offset = {0};
+        readVarInt(handshake, offset); // Packet id
+        final int protocolVersion = readVarInt(handshake, offset);
+        final int addressLength = readVarInt(handshake, offset);
+        offset[0] += addressLength + Short.BYTES; // Server address and port
+        final boolean record = readVarInt(handshake, offset) != HANDSHAKE_STATUS;
+        if (record && protocolVersion != serverVersion.getVersion()) {
+            closeQuietly(client, upstream);
+            throw new IOException("Client joined with protocol version " + protocolVersion + ", expected " + serverVersion);
+        }
+
+        if (record) {
+            startMillis = System.currentTimeMillis();
+        }
+
+        final Thread serverbound = startPump(clientIn, serverOut, Direction.SERVERBOUND, record, client, upstream);
+        final Thread clientbound = startPump(serverIn, clientOut, Direction.CLIENTBOUND, record, client, upstream);
+        if (!record) {
+            return false;
+        }
+
+        try {
+            serverbound.join();
+            clientbound.join();
+        } catch (final InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while recording", e);
+        }
+        return true;
+    }
+
+    private Thread startPump(final DataInputStream in, final OutputStream out, final Direction direction, final boolean record, final Socket... sockets) {
+        final Thread thread = new Thread(() -> {
+            State state = State.LOGIN;
+            try {
+                int length;
+                while ((length = readVarInt(in)) != -1) {
+                    final byte[] data = new byte[length];
+                    in.readFully(data);
+                    forward(out, data);
+                    if (record) {
+                        synchronized (packets) {
+                            packets.add(new CapturedPacket(direction, state, System.currentTimeMillis() - startMillis, data));
+                        }
+                        state = nextState(direction, state, readVarInt(data, new int[]{0}));
+                    }
+                }
+            } catch (final IOException ignored) {
+                // Closed by either side
+            } catch (final Exception e) {
+                failure = e;
+            } finally {
+                closeQuietly(sockets);
+            }
+        }, "Capture " + direction.name().toLowerCase(Locale.ROOT));
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    /**
+     * Returns the state the sender is in after sending the given packet.
+     *
+     * @param direction direction of the packet
+     * @param state     state of the sender when sending the packet
+     * @param id        packet id
+     * @return state of the sender after the packet
+     */
+    private State nextState(final Direction direction, final State state, final int id) {
+        if (direction == Direction.CLIENTBOUND) {
+            return switch (state) {
+                case LOGIN -> {
+                    if (id == LOGIN_ENCRYPTION_REQUEST || id == LOGIN_COMPRESSION) {
+                        throw new IllegalStateException("The server has to run in offline mode with compression disabled");
+                    }
+                    yield id == LOGIN_SUCCESS ? State.CONFIGURATION : state;
+                }
+                case CONFIGURATION -> id == clientboundFinishConfiguration ? State.PLAY : state;
+                case PLAY -> id == clientboundStartConfiguration ? State.CONFIGURATION : state;
+                default -> state;
+            };
+        }
+
+        return switch (state) {
+            case LOGIN -> id == LOGIN_ACKNOWLEDGED ? State.CONFIGURATION : state;
+            case CONFIGURATION -> id == serverboundFinishConfiguration ? State.PLAY : state;
+            case PLAY -> id == serverboundConfigurationAcknowledged ? State.CONFIGURATION : state;
+            default -> state;
+        };
+    }
+
+    private static ProtocolVersion previousVersion(final ProtocolVersion version) {
+        ProtocolVersion previous = null;
+        for (final ProtocolVersion other : ProtocolVersion.getProtocols()) {
+            if (other.olderThan(version) && (previous == null || other.newerThan(previous))) {
+                previous = other;
+            }
+        }
+        if (previous == null) {
+            throw new IllegalArgumentException("No version before " + version);
+        }
+        return previous;
+    }
+
+    private static void forward(final OutputStream out, final byte[] data) throws IOException {
+        int value = data.length;
+        while ((value & ~0x7F) != 0) {
+            out.write((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        out.write(value);
+        out.write(data);
+        out.flush();
+    }
+
+    /**
+     * Reads a varint frame length from the stream.
+     *
+     * @return frame length, or -1 if the stream ended before a new frame
+     */
+    private static int readVarInt(final DataInputStream in) throws IOException {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            final int b = in.read();
+            if (b == -1) {
+                if (i == 0) {
+                    return -1;
+                }
+                throw new IOException("Stream ended within a varint");
+            }
+
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IOException("Varint too long");
+    }
+
+    private static int readVarInt(final byte[] data, final int[] offset) {
+        int value = 0;
+        for (int i = 0; i < 5; i++) {
+            final byte b = data[offset[0]++];
+            value |= (b & 0x7F) << (i * 7);
+            if ((b & 0x80) == 0) {
+                return value;
+            }
+        }
+        throw new IllegalArgumentException("Varint too long");
+    }
+
+    private static void closeQuietly(final Socket... sockets) {
+        for (final Socket socket : sockets) {
+            try {
+                socket.close();
+            } catch (final IOException ignored) {
+            }
+        }
+    }
+}
@@ -0,0 +1,37 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.capture;
+
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+
+/**
+ * A single raw packet of a capture, consisting of the varint packet id followed by its payload.
+ * The data is neither length prefixed, compressed nor encrypted.
+ *
+ * @param direction  direction the packet was sent in
+ * @param state      protocol state of the sender when the packet was sent
+ * @param timeMillis milliseconds since the start of the capture
+ * @param data       packet id and payload
+ */
+public record CapturedPacket(Direction direction, State state, long timeMillis, byte[] data) {
+
+    public boolean clientbound() {
+        return direction == Direction.CLIENTBOUND;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.capture;
+
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.io.BufferedInputStream;
+import java.io.BufferedOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Recorded packet stream of a single connection, as seen between the server and ViaVersion's pipeline.
+ * <p>
+ * Layout: {@code int magic, byte format version, int server protocol version}, followed by records of
+ * {@code byte direction (0 clientbound, 1 serverbound), byte state ordinal, long time millis, int length, byte[length] data}
+ * until the end of the file.
+ */
+public final class PacketCapture {
+
+    private static final int MAGIC = 0x56424350; // VBCP
+    private static final int FORMAT_VERSION = 1;
+    private final ProtocolVersion serverVersion;
+    private final List<CapturedPacket> packets;
+
+    public PacketCapture(final ProtocolVersion serverVersion, final List<CapturedPacket> packets) {
+        this.serverVersion = serverVersion;
+        this.packets = packets;
+    }
+
+    public static PacketCapture read(final Path path) throws IOException {
+        try (final DataInputStream in = new DataInputStream(new BufferedInputStream(Files.newInputStream(path)))) {
+            if (in.readInt() != MAGIC) {
+                throw new IOException("Not a packet capture: " + path);
+            }
+
+            final int formatVersion = in.readUnsignedByte();
+            if (formatVersion != FORMAT_VERSION) {
+                throw new IOException("Unsupported capture format version " + formatVersion);
+            }
+
+            final ProtocolVersion serverVersion = ProtocolVersion.getProtocol(in.readInt());
+            final List<CapturedPacket> packets = new ArrayList<>();
+            while (true) {
+                final int direction;
+                try {
+                    direction = in.readUnsignedByte();
+                } catch (final EOFException e) {
+                    break;
+                }
+
+                final State state = State.values()[in.readUnsignedByte()];
+                final long timeMillis = in.readLong();
+                final byte[] data = new byte[in.readInt()];
+                in.readFully(data);
+                packets.add(new CapturedPacket(direction == 0 ? Direction.CLIENTBOUND : Direction.SERVERBOUND, state, timeMillis, data));
+            }
+            return new PacketCapture(serverVersion, packets);
+        }
+    }
+
+    public void write(final Path path) throws IOException {
+        try (final DataOutputStream out = new DataOutputStream(new BufferedOutputStream(Files.newOutputStream(path)))) {
+            out.writeInt(MAGIC);
+            out.writeByte(FORMAT_VERSION);
+            out.writeInt(serverVersion.getVersion());
+            for (final CapturedPacket packet : packets) {
+                out.writeByte(packet.clientbound() ? 0 : 1);
+                out.writeByte(packet.state().ordinal());
+                out.writeLong(packet.timeMillis());
+                out.writeInt(packet.data().length);
+                out.write(packet.data());
+            }
+        }
+    }
+
+    public ProtocolVersion serverVersion() {
+        return serverVersion;
+    }
+
+    public List<CapturedPacket> packets() {
+        return packets;
+    }
+}
@@ -0,0 +1,49 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.platform;
+
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.platform.ViaInjector;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+
+final class HeadlessInjector implements ViaInjector {
+
+    private final ProtocolVersion serverVersion;
+
+    HeadlessInjector(final ProtocolVersion serverVersion) {
+        this.serverVersion = serverVersion;
+    }
+
+    @Override
+    public void inject() {
+    }
+
+    @Override
+    public void uninject() {
+    }
+
+    @Override
+    public ProtocolVersion getServerProtocolVersion() {
+        return serverVersion;
+    }
+
+    @Override
+    public JsonObject getDump() {
+        return new JsonObject();
+    }
+}
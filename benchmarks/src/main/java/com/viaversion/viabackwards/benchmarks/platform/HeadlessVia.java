@@ -0,0 +1,94 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.platform;
+
+import com.viaversion.viaversion.ViaManagerImpl;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.protocol.ProtocolManager;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.file.Files;
+import java.util.List;
+
+/**
+ * Boots ViaVersion and ViaBackwards without a server platform, so that protocol pipelines can be driven directly.
+ */
+public final class HeadlessVia {
+
+    private static ProtocolVersion serverVersion;
+
+    /**
+     * Initializes Via for the given server version if not done yet. Via can only be initialized once per JVM, so harnesses
+     * ending at an intermediate version, e.g. to translate a capture to a single hop's input version, share the platform
+     * of the first initialized server version. Their pipelines are set up directly and don't depend on it.
+     *
+     * @param serverVersion server version to initialize for
+     */
+    public static synchronized void init(final ProtocolVersion serverVersion) {
+        if (HeadlessVia.serverVersion != null) {
+            return;
+        }
+
+        final File dataFolder;
+        try {
+            dataFolder = Files.createTempDirectory("viabackwards-headless").toFile();
+        } catch (final IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        final ViaManagerImpl manager = ViaManagerImpl.builder()
+            .platform(new HeadlessViaPlatform(new File(dataFolder, "ViaVersion")))
+            .injector(new HeadlessInjector(serverVersion))
+            .loader(new HeadlessPlatformLoader())
+            .build();
+        Via.init(manager);
+
+        final HeadlessBackwardsPlatform backwardsPlatform = new HeadlessBackwardsPlatform(new File(dataFolder, "ViaBackwards"));
+        manager.addEnableListener(() -> backwardsPlatform.init(new File(backwardsPlatform.getDataFolder(), "config.yml")));
+        manager.init();
+        manager.onServerLoaded();
+        HeadlessVia.serverVersion = serverVersion;
+    }
+
+    /**
+     * Blocks until the mappings of all protocols between the given versions are loaded.
+     *
+     * @param clientVersion client version
+     * @param serverVersion server version
+     * @return protocol path from the client to the server version
+     */
+    public static List<ProtocolPathEntry> awaitProtocolPath(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) {
+        final ProtocolManager protocolManager = Via.getManager().getProtocolManager();
+        final List<ProtocolPathEntry> path = protocolManager.getProtocolPath(clientVersion, serverVersion);
+        if (path == null) {
+            throw new IllegalArgumentException("No protocol path from " + clientVersion + " to " + serverVersion);
+        }
+
+        for (final ProtocolPathEntry entry : path) {
+            try {
+                protocolManager.completeMappingDataLoading(entry.protocol().getClass());
+            } catch (final Exception e) {
+                throw new IllegalStateException("Failed to load mappings of " + entry.protocol().getClass().getSimpleName(), e);
+            }
+        }
+        return path;
+    }
+}
@@ -0,0 +1,58 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.platform;
+
+import com.viaversion.viaversion.configuration.AbstractViaConfig;
+import java.io.File;
+import java.io.InputStream;
+import java.net.URL;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.logging.Logger;
+
+final class HeadlessViaConfig extends AbstractViaConfig {
+
+    HeadlessViaConfig(final File configFile, final Logger logger) {
+        super(configFile, logger);
+    }
+
+    @Override
+    public boolean isCheckForUpdates() {
+        return false;
+    }
+
+    @Override
+    public URL getDefaultConfigURL() {
+        return getClass().getClassLoader().getResource("assets/viaversion/config.yml");
+    }
+
+    @Override
+    public InputStream getDefaultConfigInputStream() {
+        return getClass().getClassLoader().getResourceAsStream("assets/viaversion/config.yml");
+    }
+
+    @Override
+    protected void handleConfig(final Map<String, Object> map) {
+    }
+
+    @Override
+    public List<String> getUnsupportedOptions() {
+        return Collections.emptyList();
+    }
+}
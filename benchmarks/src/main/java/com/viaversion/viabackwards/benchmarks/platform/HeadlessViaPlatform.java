@@ -0,0 +1,156 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.platform;
+
+import com.google.gson.JsonObject;
+import com.viaversion.viaversion.api.ViaAPI;
+import com.viaversion.viaversion.api.command.ViaCommandSender;
+import com.viaversion.viaversion.api.configuration.ViaVersionConfig;
+import com.viaversion.viaversion.api.platform.PlatformTask;
+import com.viaversion.viaversion.api.platform.ViaPlatform;
+import java.io.File;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Minimal platform without a server or players. "Sync" tasks are run on a single scheduler thread.
+ */
+final class HeadlessViaPlatform implements ViaPlatform<UUID> {
+
+    private static final long TICK_MILLIS = 50;
+    private final Logger logger = Logger.getLogger("ViaVersion");
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        final Thread thread = new Thread(runnable, "Via Headless Scheduler");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final File dataFolder;
+    private final HeadlessViaConfig config;
+    private final ViaAPI<UUID> api = new HeadlessViaAPI();
+
+    HeadlessViaPlatform(final File dataFolder) {
+        this.dataFolder = dataFolder;
+        this.config = new HeadlessViaConfig(new File(dataFolder, "config.yml"), logger);
+        config.reload();
+    }
+
+    @Override
+    public Logger getLogger() {
+        return logger;
+    }
+
+    @Override
+    public String getPlatformName() {
+        return "Headless";
+    }
+
+    @Override
+    public String getPlatformVersion() {
+        return "benchmark";
+    }
+
+    @Override
+    public String getPluginVersion() {
+        return null;
+    }
+
+    @Override
+    public PlatformTask runAsync(final Runnable runnable) {
+        return new Task(scheduler.submit(runnable));
+    }
+
+    @Override
+    public PlatformTask runRepeatingAsync(final Runnable runnable, final long ticks) {
+        return runRepeatingSync(runnable, ticks);
+    }
+
+    @Override
+    public PlatformTask runSync(final Runnable runnable) {
+        return runAsync(runnable);
+    }
+
+    @Override
+    public PlatformTask runSync(final Runnable runnable, final long delay) {
+        return new Task(scheduler.schedule(runnable, delay * TICK_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public PlatformTask runRepeatingSync(final Runnable runnable, final long period) {
+        return new Task(scheduler.scheduleAtFixedRate(runnable, 0, period * TICK_MILLIS, TimeUnit.MILLISECONDS));
+    }
+
+    @Override
+    public ViaCommandSender[] getOnlinePlayers() {
+        return new ViaCommandSender[0];
+    }
+
+    @Override
+    public void sendMessage(final UUID uuid, final String message) {
+    }
+
+    @Override
+    public boolean kickPlayer(final UUID uuid, final String message) {
+        return false;
+    }
+
+    @Override
+    public boolean isPluginEnabled() {
+        return true;
+    }
+
+    @Override
+    public ViaAPI<UUID> getApi() {
+        return api;
+    }
+
+    @Override
+    public ViaVersionConfig getConf() {
+        return config;
+    }
+
+    @Override
+    public File getDataFolder() {
+        return dataFolder;
+    }
+
+    @Override
+    public void onReload() {
+    }
+
+    @Override
+    public JsonObject getDump() {
+        return new JsonObject();
+    }
+
+    @Override
+    public boolean hasPlugin(final String name) {
+        return false;
+    }
+
+    private record Task(Future<?> future) implements PlatformTask<Future<?>> {
+
+        @Override
+        public void cancel() {
+            future.cancel(false);
+        }
+    }
+}
@@ -0,0 +1,90 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viabackwards.ViaBackwardsConfig;
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viabackwards.protocol.v1_19to1_18_2.Protocol1_19To1_18_2;
+import com.viaversion.viabackwards.protocol.v1_19to1_18_2.rewriter.BlockItemPacketRewriter1_19;
+import com.viaversion.viabackwards.protocol.v1_19to1_18_2.storage.LastDeathPosition;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.minecraft.GlobalBlockPosition;
+import com.viaversion.viaversion.api.minecraft.item.DataItem;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+
+final class CompactItemBackupTranslationTest {
+
+    private static final int RECOVERY_COMPASS = 834;
+
+    @BeforeAll
+    static void init() {
+        HeadlessVia.init(ProtocolVersion.v1_21);
+        setCompactItemBackups(true);
+    }
+
+    @AfterAll
+    static void reset() {
+        setCompactItemBackups(false);
+    }
+
+    @Test
+    void roundTripsRecoveryCompass() {
+        try (final TranslationHarness harness = new TranslationHarness(ProtocolVersion.v1_18_2, ProtocolVersion.v1_19)) {
+            harness.user().put(new LastDeathPosition(new GlobalBlockPosition("minecraft:overworld", 1, 2, 3)));
+            final BlockItemPacketRewriter1_19 rewriter = Via.getManager().getProtocolManager().getProtocol(Protocol1_19To1_18_2.class).getItemRewriter();
+            final String prefix = rewriter.nbtTagName();
+
+            final CompoundTag tag = new CompoundTag();
+            tag.putString("other", "value");
+            final Item item = rewriter.handleItemToClient(harness.user(), new DataItem(RECOVERY_COMPASS, (byte) 1, tag.copy()));
+            assertNotEquals(RECOVERY_COMPASS, item.identifier());
+            // The lodestone marker uses the bare prefix, the compact backup must not be overwritten by it
+            assertInstanceOf(ByteTag.class, item.tag().get(prefix));
+            assertInstanceOf(ByteArrayTag.class, item.tag().get(rewriter.nbtTagName("backup")));
+
+            rewriter.handleItemToServer(harness.user(), item);
+            assertEquals(RECOVERY_COMPASS, item.identifier());
+            assertEquals("value", item.tag().getStringTag("other").getValue());
+            assertFalse(item.tag().contains("LodestonePos"));
+            assertFalse(item.tag().contains("LodestoneDimension"));
+            for (final String key : item.tag().keySet()) {
+                assertFalse(key.startsWith(prefix), key);
+            }
+        }
+    }
+
+    private static void setCompactItemBackups(final boolean enabled) {
+        final ViaBackwardsConfig config = (ViaBackwardsConfig) ViaBackwards.getConfig();
+        config.set("compact-item-backups", enabled);
+        config.save();
+        config.reload();
+    }
+}
@@ -0,0 +1,83 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.api.data.ComposedMappings;
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+/**
+ * Compares composed block state mappings with mapping ids through every protocol's mapping data, which needs the
+ * mappings of the headless platform.
+ */
+final class ComposedMappingsTest {
+
+    private static final ProtocolVersion SERVER_VERSION = ProtocolVersion.v1_21;
+
+    @BeforeAll
+    static void init() {
+        HeadlessVia.init(SERVER_VERSION);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.20.5", "1.20", "1.19", "1.18.2"})
+    void matchesMappingPerProtocol(final String clientVersionName) {
+        final List<Protocol> protocols = protocols(ProtocolVersion.getClosest(clientVersionName));
+        final ComposedMappings composed = ComposedMappings.of(protocols);
+        assertNotNull(composed.getBlockStateMappings());
+
+        final int blockStates = protocols.get(protocols.size() - 1).getMappingData().getBlockStateMappings().size();
+        for (int id = 0; id < blockStates; id++) {
+            int expected = id;
+            for (int i = protocols.size() - 1; i >= 0; i--) {
+                final MappingData mappingData = protocols.get(i).getMappingData();
+                if (mappingData != null && mappingData.getBlockStateMappings() != null) {
+                    expected = mappingData.getNewBlockStateId(expected);
+                }
+            }
+            assertEquals(expected, composed.getNewBlockStateId(id), "block state " + id);
+        }
+    }
+
+    @Test
+    void reusesComposedMappingsOfSameRange() {
+        final List<Protocol> protocols = protocols(ProtocolVersion.v1_20);
+        assertSame(ComposedMappings.of(protocols), ComposedMappings.of(new ArrayList<>(protocols)));
+    }
+
+    private static List<Protocol> protocols(final ProtocolVersion clientVersion) {
+        final List<Protocol> protocols = new ArrayList<>();
+        for (final ProtocolPathEntry entry : HeadlessVia.awaitProtocolPath(clientVersion, SERVER_VERSION)) {
+            protocols.add(entry.protocol());
+        }
+        return protocols;
+    }
+}
@@ -0,0 +1,204 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.LongArrayTag;
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.ProtocolPathEntry;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Types;
+import com.viaversion.viaversion.util.MathUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+
+/**
+ * Compares chunks translated by a fused run of protocols with the same chunks translated one protocol at a time.
+ */
+final class FusedChunkTranslationTest {
+
+    private static final ProtocolVersion SERVER_VERSION = ProtocolVersion.v1_21;
+    private static final int SECTION_HEIGHT = 24;
+    private static final int BIOMES_SENT = 64;
+    private static final int CHUNKS = 8;
+
+    @BeforeAll
+    static void init() {
+        HeadlessVia.init(SERVER_VERSION);
+    }
+
+    @ParameterizedTest
+    @ValueSource(strings = {"1.20.5", "1.20.2", "1.20", "1.19.4", "1.19", "1.18.2"})
+    void matchesTranslationPerHop(final String clientVersionName) throws Exception {
+        final ProtocolVersion clientVersion = ProtocolVersion.getClosest(clientVersionName);
+        final List<ProtocolPathEntry> path = HeadlessVia.awaitProtocolPath(clientVersion, SERVER_VERSION);
+        final List<TranslationHarness> hops = new ArrayList<>();
+        try (final TranslationHarness fused = harness(clientVersion, SERVER_VERSION)) {
+            // The path starts at the client, so the hop next to the server comes last
+            for (int i = path.size() - 1; i >= 0; i--) {
+                final ProtocolVersion hopClientVersion = i > 0 ? path.get(i - 1).outputProtocolVersion() : clientVersion;
+                final TranslationHarness hop = harness(hopClientVersion, path.get(i).outputProtocolVersion());
+                hops.add(hop);
+                assertEquals(1, hop.protocols().size());
+            }
+
+            final Random random = new Random(0);
+            final int chunkPacketId = fused.serverClientboundPacketId("LEVEL_CHUNK_WITH_LIGHT");
+            final Protocol serverProtocol = fused.protocols().get(fused.protocols().size() - 1);
+            final int blockStates = serverProtocol.getMappingData().getBlockStateMappings().size();
+            for (int chunk = 0; chunk < CHUNKS; chunk++) {
+                final byte[] packet = chunkPacket(random, chunkPacketId, blockStates);
+                final byte[] expected = translatePerHop(hops, packet);
+                final ByteBuf translated = fused.translateClientbound(packet);
+                assertNotNull(translated);
+                assertArrayEquals(expected, toArray(translated), "chunk " + chunk + " for " + clientVersion);
+            }
+        } finally {
+            for (final TranslationHarness hop : hops) {
+                hop.close();
+            }
+        }
+    }
+
+    private static byte[] translatePerHop(final List<TranslationHarness> hops, final byte[] packet) throws Exception {
+        byte[] data = packet;
+        for (final TranslationHarness hop : hops) {
+            final ByteBuf translated = hop.translateClientbound(data);
+            assertNotNull(translated);
+            data = toArray(translated);
+        }
+        return data;
+    }
+
+    private static TranslationHarness harness(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) {
+        final TranslationHarness harness = new TranslationHarness(clientVersion, serverVersion);
+        harness.syncState(State.PLAY);
+        harness.user().getProtocolInfo().setClientState(State.PLAY);
+
+        // Usually set from the login and registry data packets
+        for (final Protocol protocol : harness.protocols()) {
+            final EntityTracker tracker = harness.user().getEntityTracker(protocol.getClass());
+            if (tracker != null) {
+                tracker.setCurrentWorldSectionHeight(SECTION_HEIGHT);
+                tracker.setBiomesSent(BIOMES_SENT);
+            }
+        }
+        return harness;
+    }
+
+    private static byte[] chunkPacket(final Random random, final int packetId, final int blockStates) {
+        // 1.21 chunk with sections of every palette type and a few block entities
+        final ByteBuf buf = Unpooled.buffer();
+        Types.VAR_INT.writePrimitive(buf, packetId);
+        buf.writeInt(random.nextInt(64) - 32);
+        buf.writeInt(random.nextInt(64) - 32);
+
+        final CompoundTag heightmaps = new CompoundTag();
+        heightmaps.put("MOTION_BLOCKING", new LongArrayTag(new long[37]));
+        Types.COMPOUND_TAG.write(buf, heightmaps);
+
+        final ByteBuf sections = Unpooled.buffer();
+        for (int i = 0; i < SECTION_HEIGHT; i++) {
+            sections.writeShort(random.nextInt(4097));
+            switch (i % 4) {
+                case 0 -> writeSingleValue(sections, random.nextInt(blockStates));
+                case 1 -> writeIndirect(sections, random, 4, 12, blockStates);
+                case 2 -> writeIndirect(sections, random, 8, 200, blockStates);
+                default -> writeDirect(sections, random, blockStates);
+            }
+            writeSingleValue(sections, random.nextInt(BIOMES_SENT)); // Biomes
+        }
+        Types.VAR_INT.writePrimitive(buf, sections.readableBytes());
+        buf.writeBytes(sections);
+        sections.release();
+
+        Types.VAR_INT.writePrimitive(buf, 2);
+        buf.writeByte(1 << 4 | 2); // Packed section x and z
+        buf.writeShort(-60);
+        Types.VAR_INT.writePrimitive(buf, 1);
+        buf.writeByte(0); // No tag
+        buf.writeByte(3 << 4 | 4);
+        buf.writeShort(70);
+        Types.VAR_INT.writePrimitive(buf, 15);
+        final CompoundTag skullTag = new CompoundTag();
+        skullTag.putString("profile", "Notch");
+        Types.COMPOUND_TAG.write(buf, skullTag);
+
+        // Empty light masks and arrays
+        for (int i = 0; i < 6; i++) {
+            Types.VAR_INT.writePrimitive(buf, 0);
+        }
+
+        final byte[] packet = toArray(buf);
+        buf.release();
+        return packet;
+    }
+
+    private static void writeSingleValue(final ByteBuf buf, final int id) {
+        buf.writeByte(0);
+        Types.VAR_INT.writePrimitive(buf, id);
+        Types.VAR_INT.writePrimitive(buf, 0);
+    }
+
+    private static void writeIndirect(final ByteBuf buf, final Random random, final int bits, final int paletteSize, final int blockStates) {
+        buf.writeByte(bits);
+        Types.VAR_INT.writePrimitive(buf, paletteSize);
+        for (int i = 0; i < paletteSize; i++) {
+            Types.VAR_INT.writePrimitive(buf, random.nextInt(blockStates));
+        }
+        writeValues(buf, random, bits, paletteSize);
+    }
+
+    private static void writeDirect(final ByteBuf buf, final Random random, final int blockStates) {
+        final int bits = MathUtil.ceilLog2(blockStates);
+        buf.writeByte(bits);
+        writeValues(buf, random, bits, blockStates);
+    }
+
+    private static void writeValues(final ByteBuf buf, final Random random, final int bits, final int bound) {
+        // Values don't span across longs since 1.16
+        final int valuesPerLong = 64 / bits;
+        final long[] data = new long[(4096 + valuesPerLong - 1) / valuesPerLong];
+        for (int i = 0; i < 4096; i++) {
+            data[i / valuesPerLong] |= (long) random.nextInt(bound) << (i % valuesPerLong * bits);
+        }
+        Types.VAR_INT.writePrimitive(buf, data.length);
+        for (final long value : data) {
+            buf.writeLong(value);
+        }
+    }
+
+    private static byte[] toArray(final ByteBuf buf) {
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.getBytes(buf.readerIndex(), bytes);
+        return bytes;
+    }
+}
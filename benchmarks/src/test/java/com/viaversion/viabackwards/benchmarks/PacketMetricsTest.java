@@ -0,0 +1,138 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viabackwards.metrics.PacketMetric;
+import com.viaversion.viabackwards.metrics.PacketMetrics;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Types;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Checks the packet metrics collected by protocols of a real pipeline.
+ */
+final class PacketMetricsTest {
+
+    private static final String PROTOCOL = "Protocol1_21To1_20_5";
+    private static final String PACKET = "CHUNK_BATCH_START";
+    private PacketMetrics metrics;
+    private int sampleRate;
+
+    @BeforeAll
+    static void init() {
+        HeadlessVia.init(ProtocolVersion.v1_21);
+    }
+
+    @BeforeEach
+    void setUp() {
+        metrics = ViaBackwards.getPacketMetrics();
+        sampleRate = metrics.sampleRate();
+        metrics.reset();
+    }
+
+    @AfterEach
+    void tearDown() {
+        metrics.setSampleRate(sampleRate);
+        metrics.reset();
+    }
+
+    @Test
+    void measuresEveryPacket() throws Exception {
+        metrics.setSampleRate(1);
+        translate(100);
+
+        final PacketMetric metric = metric();
+        assertNotNull(metric);
+        assertEquals(Direction.CLIENTBOUND, metric.direction());
+        assertEquals(State.PLAY, metric.state());
+        assertEquals(100, metric.calls());
+        assertEquals(100, metric.sampledCalls());
+        assertTrue(metric.nanos() > 0);
+    }
+
+    @Test
+    void countsEveryPacketWhenSampling() throws Exception {
+        metrics.setSampleRate(10);
+        translate(1000);
+
+        final PacketMetric metric = metric();
+        assertNotNull(metric);
+        assertEquals(1000, metric.calls());
+        assertTrue(metric.sampledCalls() > 0 && metric.sampledCalls() < 1000, "sampled " + metric.sampledCalls());
+    }
+
+    @Test
+    void countsNothingWhileDisabled() throws Exception {
+        metrics.setSampleRate(0);
+        translate(10);
+        assertNull(metric());
+    }
+
+    @Test
+    void resets() throws Exception {
+        metrics.setSampleRate(1);
+        translate(10);
+        metrics.reset();
+        assertNull(metric());
+    }
+
+    @Test
+    void rejectsNegativeSampleRates() {
+        assertThrows(IllegalArgumentException.class, () -> metrics.setSampleRate(-1));
+    }
+
+    private static void translate(final int packets) throws Exception {
+        try (final TranslationHarness harness = new TranslationHarness(ProtocolVersion.v1_20_5, ProtocolVersion.v1_21)) {
+            harness.syncState(State.PLAY);
+            final ByteBuf buf = Unpooled.buffer();
+            Types.VAR_INT.writePrimitive(buf, harness.serverClientboundPacketId(PACKET));
+            final byte[] packet = new byte[buf.readableBytes()];
+            buf.readBytes(packet);
+            buf.release();
+
+            for (int i = 0; i < packets; i++) {
+                harness.translateClientbound(packet);
+            }
+        }
+    }
+
+    private @Nullable PacketMetric metric() {
+        for (final PacketMetric metric : metrics.snapshot()) {
+            if (metric.protocol().equals(PROTOCOL) && metric.packet().endsWith("." + PACKET)) {
+                return metric;
+            }
+        }
+        return null;
+    }
+}
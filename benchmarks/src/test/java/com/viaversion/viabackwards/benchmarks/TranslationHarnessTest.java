@@ -0,0 +1,95 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks;
+
+import com.viaversion.viabackwards.benchmarks.platform.HeadlessVia;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Types;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TranslationHarnessTest {
+
+    @BeforeAll
+    static void init() {
+        HeadlessVia.init(ProtocolVersion.v1_21);
+    }
+
+    @Test
+    void chainsHarnessesOverIntermediateVersions() throws Exception {
+        try (final TranslationHarness direct = harness(ProtocolVersion.v1_20_3, ProtocolVersion.v1_21);
+             final TranslationHarness upstream = harness(ProtocolVersion.v1_20_5, ProtocolVersion.v1_21);
+             final TranslationHarness downstream = harness(ProtocolVersion.v1_20_3, ProtocolVersion.v1_20_5)) {
+            assertEquals(2, direct.protocols().size());
+            assertEquals(1, upstream.protocols().size());
+            assertEquals(1, downstream.protocols().size());
+
+            final byte[] packet = packet(direct.serverClientboundPacketId("CHUNK_BATCH_START"));
+            final byte[] expected = toArray(direct.translateClientbound(packet));
+            final byte[] intermediate = toArray(upstream.translateClientbound(packet));
+            assertArrayEquals(expected, toArray(downstream.translateClientbound(intermediate)));
+        }
+    }
+
+    @Test
+    void returnsNullForCancelledPackets() throws Exception {
+        try (final TranslationHarness harness = harness(ProtocolVersion.v1_20, ProtocolVersion.v1_20_2)) {
+            final byte[] packet = packet(harness.serverClientboundPacketId("CHUNK_BATCH_START"));
+            assertNull(harness.translateClientbound(packet));
+            assertTrue(harness.translateClientboundCollecting(packet).isEmpty());
+        }
+    }
+
+    @Test
+    void returnsMinusOneForUnknownPacketTypes() {
+        try (final TranslationHarness harness = harness(ProtocolVersion.v1_20, ProtocolVersion.v1_20_2)) {
+            assertEquals(-1, harness.serverClientboundPacketId("NOT_A_PACKET"));
+        }
+    }
+
+    private static TranslationHarness harness(final ProtocolVersion clientVersion, final ProtocolVersion serverVersion) {
+        final TranslationHarness harness = new TranslationHarness(clientVersion, serverVersion);
+        harness.syncState(State.PLAY);
+        harness.user().getProtocolInfo().setClientState(State.PLAY);
+        return harness;
+    }
+
+    private static byte[] packet(final int id) {
+        final ByteBuf buf = Unpooled.buffer();
+        Types.VAR_INT.writePrimitive(buf, id);
+        final byte[] packet = toArray(buf);
+        buf.release();
+        return packet;
+    }
+
+    private static byte[] toArray(final ByteBuf buf) {
+        assertNotNull(buf);
+        final byte[] bytes = new byte[buf.readableBytes()];
+        buf.getBytes(buf.readerIndex(), bytes);
+        return bytes;
+    }
+}
@@ -0,0 +1,108 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.benchmarks.capture;
+
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class PacketCaptureTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTrips() throws IOException {
+        final Random random = new Random(0);
+        final List<CapturedPacket> packets = new ArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            final byte[] data = new byte[random.nextInt(3) == 0 ? 0 : random.nextInt(70000)];
+            random.nextBytes(data);
+            final Direction direction = random.nextBoolean() ? Direction.CLIENTBOUND : Direction.SERVERBOUND;
+            final State state = State.values()[random.nextInt(State.values().length)];
+            packets.add(new CapturedPacket(direction, state, i * 50L + random.nextInt(50), data));
+        }
+
+        final Path path = directory.resolve("session.vbcap");
+        new PacketCapture(ProtocolVersion.v1_21, packets).write(path);
+        final PacketCapture capture = PacketCapture.read(path);
+
+        assertEquals(ProtocolVersion.v1_21, capture.serverVersion());
+        assertEquals(packets.size(), capture.packets().size());
+        for (int i = 0; i < packets.size(); i++) {
+            final CapturedPacket expected = packets.get(i);
+            final CapturedPacket packet = capture.packets().get(i);
+            assertEquals(expected.direction(), packet.direction());
+            assertEquals(expected.state(), packet.state());
+            assertEquals(expected.timeMillis(), packet.timeMillis());
+            assertArrayEquals(expected.data(), packet.data());
+        }
+    }
+
+    @Test
+    void readsEmptyCaptures() throws IOException {
+        final Path path = directory.resolve("empty.vbcap");
+        new PacketCapture(ProtocolVersion.v1_20_5, List.of()).write(path);
+
+        final PacketCapture capture = PacketCapture.read(path);
+        assertEquals(ProtocolVersion.v1_20_5, capture.serverVersion());
+        assertTrue(capture.packets().isEmpty());
+    }
+
+    @Test
+    void rejectsOtherFiles() throws IOException {
+        final Path path = directory.resolve("other.vbcap");
+        Files.write(path, new byte[]{'P', 'K', 3, 4, 0, 0, 0, 0, 0});
+        assertThrows(IOException.class, () -> PacketCapture.read(path));
+    }
+
+    @Test
+    void rejectsUnknownFormatVersions() throws IOException {
+        final Path path = directory.resolve("newer.vbcap");
+        try (final DataOutputStream out = new DataOutputStream(Files.newOutputStream(path))) {
+            out.writeInt(0x56424350);
+            out.writeByte(2);
+            out.writeInt(ProtocolVersion.v1_21.getVersion());
+        }
+        assertThrows(IOException.class, () -> PacketCapture.read(path));
+    }
+
+    @Test
+    void rejectsTruncatedPackets() throws IOException {
+        final Path path = directory.resolve("truncated.vbcap");
+        new PacketCapture(ProtocolVersion.v1_21, List.of(new CapturedPacket(Direction.CLIENTBOUND, State.PLAY, 0, new byte[100]))).write(path);
+        final byte[] bytes = Files.readAllBytes(path);
+        Files.write(path, Arrays.copyOf(bytes, bytes.length - 10));
+        assertThrows(IOException.class, () -> PacketCapture.read(path));
+    }
+}
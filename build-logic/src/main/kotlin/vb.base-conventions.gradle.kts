@@ -17,6 +17,9 @@ tasks {
         options.encoding = Charsets.UTF_8.name()
         options.compilerArgs.addAll(listOf("-nowarn", "-Xlint:-unchecked", "-Xlint:-deprecation"))
     }
+    test {
+        useJUnitPlatform()
+    }
 }
 
 java {
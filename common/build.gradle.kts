@@ -1,8 +1,48 @@
+import groovy.json.JsonSlurper
+import java.io.ByteArrayOutputStream
+import java.io.DataOutputStream
+
 plugins {
     id("net.kyori.blossom")
     id("org.jetbrains.gradle.plugin.idea-ext")
 }
 
+// Compact binary form of translation-mappings.json, see TranslatableRewriter
+val generateTranslationMappings = tasks.register("generateTranslationMappings") {
+    val input = layout.projectDirectory.file("src/main/resources/assets/viabackwards/data/translation-mappings.json")
+    val output = layout.buildDirectory.dir("generated/resources/translation-mappings")
+    inputs.file(input)
+    outputs.dir(output)
+    doLast {
+        @Suppress("UNCHECKED_CAST")
+        val sections = JsonSlurper().parse(input.asFile) as Map<String, Map<String, String>>
+        // No shared string table: only ~2% of the keys and values repeat across sections, index pairs would cost more than they save
+        val blocks = sections.mapValues { (_, mappings) ->
+            val bytes = ByteArrayOutputStream()
+            DataOutputStream(bytes).use { out ->
+                mappings.forEach { (key, value) ->
+                    out.writeUTF(key)
+                    out.writeUTF(value)
+                }
+            }
+            bytes.toByteArray()
+        }
+
+        val file = output.get().file("assets/viabackwards/data/translation-mappings.bin").asFile
+        file.parentFile.mkdirs()
+        DataOutputStream(file.outputStream().buffered()).use { out ->
+            out.writeByte(1) // Format version
+            out.writeInt(sections.size)
+            sections.forEach { (name, mappings) ->
+                out.writeUTF(name)
+                out.writeInt(mappings.size)
+                out.writeInt(blocks.getValue(name).size)
+            }
+            blocks.values.forEach { out.write(it) }
+        }
+    }
+}
+
 sourceSets {
     main {
         blossom {
@@ -11,14 +51,28 @@ sourceSets {
                 property("impl_version", "git-ViaBackwards-${project.version}:${rootProject.latestCommitHash()}")
             }
         }
+        resources.srcDir(generateTranslationMappings)
     }
 }
 
+tasks.processResources {
+    // Only the compact form is shipped, a translation-mappings.json in the data folder still overrides it
+    exclude("assets/viabackwards/data/translation-mappings.json")
+}
+
 dependencies {
     compileOnlyApi(libs.viaver)
     compileOnlyApi(libs.netty)
     compileOnlyApi(libs.guava)
     compileOnlyApi(libs.checkerQual)
+
+    // Provided by the platform at runtime, so tests need them on their own classpath
+    testImplementation(libs.viaver)
+    testImplementation(libs.netty)
+    testImplementation(libs.guava)
+    testImplementation(libs.checkerQual)
+    testImplementation(libs.junit)
+    testRuntimeOnly(libs.junitLauncher)
 }
 
 java {
@@ -21,17 +21,55 @@ package com.viaversion.viabackwards;
 import com.google.common.base.Preconditions;
 import com.viaversion.viabackwards.api.ViaBackwardsConfig;
 import com.viaversion.viabackwards.api.ViaBackwardsPlatform;
+import com.viaversion.viabackwards.api.rewriters.ChunkTranslationCache;
+import com.viaversion.viabackwards.metrics.PacketMetrics;
+import com.viaversion.viabackwards.utils.TextConversionCache;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class ViaBackwards {
 
     private static ViaBackwardsPlatform platform;
     private static ViaBackwardsConfig config;
+    private static PacketMetrics packetMetrics;
+    private static volatile ChunkTranslationCache chunkTranslationCache;
+    private static volatile TextConversionCache textConversionCache;
+    private static int chunkTranslationCacheSize;
+    private static int textConversionCacheSize;
 
     public static void init(ViaBackwardsPlatform platform, ViaBackwardsConfig config) {
         Preconditions.checkArgument(ViaBackwards.platform == null, "ViaBackwards is already initialized");
 
         ViaBackwards.platform = platform;
         ViaBackwards.config = config;
+        ViaBackwards.packetMetrics = new PacketMetrics(config.packetMetricsSampleRate(), config.packetMetricsTrackAllocations());
+        loadCaches(config);
+    }
+
+    /**
+     * Applies the metrics and cache settings of a reloaded config. Caches whose size changed are replaced by empty ones.
+     *
+     * @param config reloaded config
+     */
+    static void reload(ViaBackwardsConfig config) {
+        if (ViaBackwards.config != config) {
+            // Initial load, applied in init
+            return;
+        }
+
+        packetMetrics.setSampleRate(config.packetMetricsSampleRate());
+        packetMetrics.setTrackAllocations(config.packetMetricsTrackAllocations());
+        loadCaches(config);
+    }
+
+    private static synchronized void loadCaches(ViaBackwardsConfig config) {
+        if (chunkTranslationCacheSize != config.chunkTranslationCacheSize()) {
+            chunkTranslationCacheSize = config.chunkTranslationCacheSize();
+            chunkTranslationCache = chunkTranslationCacheSize > 0 ? new ChunkTranslationCache(chunkTranslationCacheSize * 1024L * 1024L) : null;
+        }
+        if (textConversionCacheSize != config.textConversionCacheSize()) {
+            textConversionCacheSize = config.textConversionCacheSize();
+            textConversionCache = textConversionCacheSize > 0 ? new TextConversionCache(textConversionCacheSize) : null;
+        }
     }
 
     public static ViaBackwardsPlatform getPlatform() {
@@ -41,4 +79,31 @@ public final class ViaBackwards {
     public static ViaBackwardsConfig getConfig() {
         return config;
     }
+
+    /**
+     * Returns the per protocol and packet type metrics, only filled while enabled.
+     *
+     * @return packet metrics
+     */
+    public static PacketMetrics getPacketMetrics() {
+        return packetMetrics;
+    }
+
+    /**
+     * Returns the chunk translation cache shared by all connections.
+     *
+     * @return chunk translation cache, or null if disabled
+     */
+    public static @Nullable ChunkTranslationCache getChunkTranslationCache() {
+        return chunkTranslationCache;
+    }
+
+    /**
+     * Returns the legacy text conversion cache shared by all connections.
+     *
+     * @return text conversion cache, or null if disabled
+     */
+    public static @Nullable TextConversionCache getTextConversionCache() {
+        return textConversionCache;
+    }
 }
@@ -37,6 +37,12 @@ public class ViaBackwardsConfig extends Config implements com.viaversion.viaback
     private boolean bedrockAtY0;
     private boolean sculkShriekersToCryingObsidian;
     private boolean suppressEmulationWarnings;
+    private int packetMetricsSampleRate;
+    private boolean packetMetricsTrackAllocations;
+    private int chunkTranslationCacheSize;
+    private int textConversionCacheSize;
+    private int structuredItemCacheSize;
+    private boolean compactItemBackups;
 
     public ViaBackwardsConfig(File configFile, Logger logger) {
         super(configFile, logger);
@@ -46,6 +52,7 @@ public class ViaBackwardsConfig extends Config implements com.viaversion.viaback
     public void reload() {
         super.reload();
         loadFields();
+        ViaBackwards.reload(this);
     }
 
     private void loadFields() {
@@ -58,6 +65,12 @@ public class ViaBackwardsConfig extends Config implements com.viaversion.viaback
         bedrockAtY0 = getBoolean("bedrock-at-y-0", false);
         sculkShriekersToCryingObsidian = getBoolean("sculk-shriekers-to-crying-obsidian", false);
         suppressEmulationWarnings = getBoolean("suppress-emulation-warnings", false);
+        packetMetricsSampleRate = Math.max(0, getInt("packet-metrics-sample-rate", 0));
+        packetMetricsTrackAllocations = getBoolean("packet-metrics-track-allocations", false);
+        chunkTranslationCacheSize = Math.max(0, getInt("chunk-translation-cache-size", 0));
+        textConversionCacheSize = Math.max(0, getInt("text-conversion-cache-size", 0));
+        structuredItemCacheSize = Math.max(0, getInt("structured-item-cache-size", 0));
+        compactItemBackups = getBoolean("compact-item-backups", false);
     }
 
     @Override
@@ -105,6 +118,36 @@ public class ViaBackwardsConfig extends Config implements com.viaversion.viaback
         return suppressEmulationWarnings;
     }
 
+    @Override
+    public int packetMetricsSampleRate() {
+        return packetMetricsSampleRate;
+    }
+
+    @Override
+    public boolean packetMetricsTrackAllocations() {
+        return packetMetricsTrackAllocations;
+    }
+
+    @Override
+    public int chunkTranslationCacheSize() {
+        return chunkTranslationCacheSize;
+    }
+
+    @Override
+    public int textConversionCacheSize() {
+        return textConversionCacheSize;
+    }
+
+    @Override
+    public int structuredItemCacheSize() {
+        return structuredItemCacheSize;
+    }
+
+    @Override
+    public boolean compactItemBackups() {
+        return compactItemBackups;
+    }
+
     @Override
     public URL getDefaultConfigURL() {
         return getClass().getClassLoader().getResource("assets/viabackwards/config.yml");
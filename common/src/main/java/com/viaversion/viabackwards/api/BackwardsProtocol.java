@@ -17,18 +17,33 @@
  */
 package com.viaversion.viabackwards.api;
 
+import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.data.BackwardsMappingData;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.api.rewriters.TranslatableRewriter;
+import com.viaversion.viabackwards.metrics.PacketMetrics;
+import com.viaversion.viabackwards.metrics.ProtocolPacketMetrics;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.protocol.AbstractProtocol;
 import com.viaversion.viaversion.api.protocol.Protocol;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.packet.ServerboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.exception.CancelException;
+import com.viaversion.viaversion.exception.InformativeException;
+import java.util.ArrayList;
+import java.util.List;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public abstract class BackwardsProtocol<CU extends ClientboundPacketType, CM extends ClientboundPacketType, SM extends ServerboundPacketType, SU extends ServerboundPacketType>
     extends AbstractProtocol<CU, CM, SM, SU> {
 
+    private ProtocolPacketMetrics packetMetrics;
+    private FusedChunkRewriter<CU> fusedChunkRewriter;
+    private final List<TranslatableRewriter<CU>> translatableRewriters = new ArrayList<>(1);
+
     protected BackwardsProtocol() {
     }
 
@@ -51,6 +66,73 @@ public abstract class BackwardsProtocol<CU extends ClientboundPacketType, CM ext
         final BackwardsMappingData mappingData = getMappingData();
         if (mappingData != null && mappingData.getViaVersionProtocolClass() != null) {
             executeAsyncAfterLoaded(mappingData.getViaVersionProtocolClass(), this::loadMappingData);
+        } else if (!translatableRewriters.isEmpty()) {
+            loadTranslatableMappingsAsync();
+        }
+    }
+
+    @Override
+    protected void onMappingDataLoaded() {
+        super.onMappingDataLoaded();
+        loadTranslatableMappings();
+    }
+
+    /**
+     * Adds a translatable rewriter whose mappings are loaded together with this protocol's mapping data.
+     * Called by the rewriter itself.
+     *
+     * @param translatableRewriter translatable rewriter of this protocol
+     */
+    public void addTranslatableRewriter(final TranslatableRewriter<CU> translatableRewriter) {
+        translatableRewriters.add(translatableRewriter);
+    }
+
+    /**
+     * Loads the mappings of all added translatable rewriters.
+     */
+    protected void loadTranslatableMappings() {
+        for (final TranslatableRewriter<CU> translatableRewriter : translatableRewriters) {
+            translatableRewriter.loadTranslatableMappings();
+        }
+    }
+
+    /**
+     * Loads the mappings of all added translatable rewriters off the netty threads, for protocols without
+     * mapping data loaded in {@link #registerPackets()}. Only one loader future is kept per protocol,
+     * so this must not be combined with {@link #executeAsyncAfterLoaded(Class, Runnable)}.
+     */
+    protected void loadTranslatableMappingsAsync() {
+        Via.getManager().getProtocolManager().addMappingLoaderFuture(getClass(), this::loadTranslatableMappings);
+    }
+
+    @Override
+    public void transform(final Direction direction, final State state, final PacketWrapper packetWrapper) throws InformativeException, CancelException {
+        final PacketMetrics metrics = ViaBackwards.getPacketMetrics();
+        if (metrics == null || !metrics.enabled()) {
+            super.transform(direction, state, packetWrapper);
+            return;
+        }
+
+        if (packetMetrics == null) {
+            packetMetrics = metrics.protocol(this);
+        }
+
+        final ProtocolPacketMetrics.PacketCounter counter = packetMetrics.counter(direction, state, packetWrapper.getId());
+        if (counter == null || !metrics.sample()) {
+            if (counter != null) {
+                counter.count();
+            }
+            super.transform(direction, state, packetWrapper);
+            return;
+        }
+
+        // Also includes time spent in later protocols if a handler sends packets itself
+        final long allocatedBytes = metrics.allocatedBytes();
+        final long start = System.nanoTime();
+        try {
+            super.transform(direction, state, packetWrapper);
+        } finally {
+            counter.record(System.nanoTime() - start, allocatedBytes != -1 ? metrics.allocatedBytes() - allocatedBytes : -1);
         }
     }
 
@@ -69,4 +151,17 @@ public abstract class BackwardsProtocol<CU extends ClientboundPacketType, CM ext
     public @Nullable TranslatableRewriter<CU> getComponentRewriter() {
         return null;
     }
+
+    /**
+     * Returns the chunk rewriter if this protocol's chunk handling can be fused with that of directly following protocols.
+     *
+     * @return fusable chunk rewriter, or null
+     */
+    public @Nullable FusedChunkRewriter<CU> getFusedChunkRewriter() {
+        return fusedChunkRewriter;
+    }
+
+    public void setFusedChunkRewriter(final FusedChunkRewriter<CU> fusedChunkRewriter) {
+        this.fusedChunkRewriter = fusedChunkRewriter;
+    }
 }
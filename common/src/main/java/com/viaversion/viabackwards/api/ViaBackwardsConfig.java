@@ -84,4 +84,59 @@ public interface ViaBackwardsConfig extends Config {
      * @return true if enabled
      */
     boolean suppressEmulationWarnings();
+
+    /**
+     * Number of handled packets per packet measured for the packet metrics. 0 disables them, 1 measures every packet.
+     *
+     * @return packet metrics sample rate
+     */
+    default int packetMetricsSampleRate() {
+        return 0;
+    }
+
+    /**
+     * Additionally measures the bytes allocated while handling sampled packets.
+     *
+     * @return true if enabled
+     */
+    default boolean packetMetricsTrackAllocations() {
+        return false;
+    }
+
+    /**
+     * Maximum size in megabytes of the chunk translation cache shared by all players. 0 disables it.
+     *
+     * @return chunk translation cache size in megabytes
+     */
+    default int chunkTranslationCacheSize() {
+        return 0;
+    }
+
+    /**
+     * Maximum number of entries in the legacy text conversion cache shared by all players. 0 disables it.
+     *
+     * @return text conversion cache size in entries
+     */
+    default int textConversionCacheSize() {
+        return 0;
+    }
+
+    /**
+     * Maximum number of converted items cached per player for 1.20.4 and lower clients. 0 disables it.
+     *
+     * @return structured item cache size in entries
+     */
+    default int structuredItemCacheSize() {
+        return 0;
+    }
+
+    /**
+     * If enabled, the original id, data and name state of rewritten items is stored in a single compact tag per protocol
+     * instead of separate tags.
+     *
+     * @return true if enabled
+     */
+    default boolean compactItemBackups() {
+        return false;
+    }
 }
@@ -21,6 +21,8 @@ package com.viaversion.viabackwards.api;
 import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.ViaBackwardsConfig;
 import com.viaversion.viabackwards.api.rewriters.TranslatableRewriter;
+import com.viaversion.viabackwards.metrics.PacketMetricsBean;
+import com.viaversion.viabackwards.metrics.PacketMetricsSubCommand;
 import com.viaversion.viabackwards.protocol.v1_11to1_10.Protocol1_11To1_10;
 import com.viaversion.viabackwards.protocol.v1_12to1_11_1.Protocol1_12To1_11_1;
 import com.viaversion.viabackwards.protocol.v1_11_1to1_11.Protocol1_11_1To1_11;
@@ -60,12 +62,18 @@ import com.viaversion.viabackwards.protocol.v1_10to1_9_3.Protocol1_10To1_9_3;
 import com.viaversion.viabackwards.protocol.v1_9_1to1_9.Protocol1_9_1To1_9;
 import com.viaversion.viabackwards.utils.VersionInfo;
 import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.command.ViaCommandHandler;
 import com.viaversion.viaversion.api.protocol.ProtocolManager;
 import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
 import com.viaversion.viaversion.update.Version;
 import java.io.File;
+import java.lang.management.ManagementFactory;
 import java.util.Arrays;
+import java.util.logging.Level;
 import java.util.logging.Logger;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 public interface ViaBackwardsPlatform {
 
@@ -141,6 +149,26 @@ public interface ViaBackwardsPlatform {
         protocolManager.registerProtocol(new Protocol1_20_5To1_20_3(), ProtocolVersion.v1_20_3, ProtocolVersion.v1_20_5);
 
         protocolManager.registerProtocol(new Protocol1_21To1_20_5(), ProtocolVersion.v1_20_5, ProtocolVersion.v1_21);
+
+        registerPacketMetrics();
+    }
+
+    private void registerPacketMetrics() {
+        final ViaCommandHandler commandHandler = Via.getManager().getCommandHandler();
+        if (commandHandler != null) {
+            commandHandler.registerSubCommand(new PacketMetricsSubCommand());
+        }
+
+        try {
+            final MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            final ObjectName name = new ObjectName(PacketMetricsBean.OBJECT_NAME);
+            if (server.isRegistered(name)) {
+                server.unregisterMBean(name);
+            }
+            server.registerMBean(new PacketMetricsBean(ViaBackwards.getPacketMetrics()), name);
+        } catch (final JMException e) {
+            getLogger().log(Level.WARNING, "Failed to register packet metrics MBean", e);
+        }
     }
 
     /**
@@ -0,0 +1,137 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.data;
+
+import com.viaversion.viaversion.api.data.IntArrayMappings;
+import com.viaversion.viaversion.api.data.MappingData;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Block state mappings composed over a chain of protocols, mapping ids from the server side of the chain directly to
+ * the client side with a single lookup.
+ * <p>
+ * Tables are only built once a chain is first requested, so only the protocol ranges actually in use take up memory.
+ * Ids that would hit a missing mapping anywhere in the chain are not precomposed and instead go through every protocol's
+ * mapping data, keeping the original fallback ids and warnings.
+ */
+public final class ComposedMappings {
+
+    private static final Map<ProtocolRange, ComposedMappings> COMPOSED_MAPPINGS = new ConcurrentHashMap<>();
+    private final MappingData[] mappingData;
+    private final @Nullable Mappings blockStateMappings;
+
+    private ComposedMappings(final MappingData[] mappingData) {
+        this.mappingData = mappingData;
+        this.blockStateMappings = composeBlockStates(mappingData);
+    }
+
+    /**
+     * Returns the composed mappings of a chain of protocols, ordered like the protocol pipeline with the protocol
+     * closest to the client first.
+     *
+     * @param protocols non-empty chain of protocols
+     * @return composed mappings
+     */
+    public static ComposedMappings of(final List<Protocol> protocols) {
+        final ProtocolRange range = new ProtocolRange(protocols.get(protocols.size() - 1), protocols.get(0));
+        return COMPOSED_MAPPINGS.computeIfAbsent(range, $ -> {
+            final List<MappingData> mappingData = new ArrayList<>(protocols.size());
+            for (int i = protocols.size() - 1; i >= 0; i--) {
+                final MappingData data = protocols.get(i).getMappingData();
+                if (data != null) {
+                    mappingData.add(data);
+                }
+            }
+            return new ComposedMappings(mappingData.toArray(MappingData[]::new));
+        });
+    }
+
+    public int getNewBlockStateId(final int id) {
+        if (blockStateMappings != null) {
+            final int mappedId = blockStateMappings.getNewId(id);
+            if (mappedId != -1) {
+                return mappedId;
+            }
+        }
+
+        int mappedId = id;
+        for (final MappingData data : mappingData) {
+            if (data.getBlockStateMappings() != null) {
+                mappedId = data.getNewBlockStateId(mappedId);
+            }
+        }
+        return mappedId;
+    }
+
+    /**
+     * Returns the precomposed block state mappings. Ids missing here may still be mapped by {@link #getNewBlockStateId(int)}.
+     *
+     * @return precomposed block state mappings, or null if no protocol in the chain maps block states
+     */
+    public @Nullable Mappings getBlockStateMappings() {
+        return blockStateMappings;
+    }
+
+    private static @Nullable Mappings composeBlockStates(final MappingData[] mappingData) {
+        int size = -1;
+        int mappedSize = -1;
+        for (final MappingData data : mappingData) {
+            final Mappings mappings = data.getBlockStateMappings();
+            if (mappings != null) {
+                if (size == -1) {
+                    size = mappings.size();
+                }
+                mappedSize = mappings.mappedSize();
+            }
+        }
+        if (size == -1) {
+            return null;
+        }
+
+        final int[] composed = new int[size];
+        Arrays.fill(composed, -1);
+        for (int id = 0; id < size; id++) {
+            int mappedId = id;
+            for (final MappingData data : mappingData) {
+                final Mappings mappings = data.getBlockStateMappings();
+                if (mappings == null) {
+                    continue;
+                }
+
+                // Leave ids without a direct mapping to the per-protocol fallbacks
+                if (mappings.getNewId(mappedId) == -1) {
+                    mappedId = -1;
+                    break;
+                }
+                mappedId = data.getNewBlockStateId(mappedId);
+            }
+            composed[id] = mappedId;
+        }
+        return IntArrayMappings.of(composed, mappedSize);
+    }
+
+    private record ProtocolRange(Protocol serverSide, Protocol clientSide) {
+    }
+}
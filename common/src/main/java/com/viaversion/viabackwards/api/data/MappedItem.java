@@ -18,6 +18,7 @@
 package com.viaversion.viabackwards.api.data;
 
 import com.viaversion.nbt.tag.Tag;
+import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.util.ComponentUtil;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
@@ -34,7 +35,7 @@ public class MappedItem {
 
     public MappedItem(final int id, final String name, @Nullable final Integer customModelData) {
         this.id = id;
-        this.jsonName = ComponentUtil.legacyToJsonString("§f" + name, true);
+        this.jsonName = ChatUtil.legacyToJsonString("§f" + name, true);
         this.tagName = ComponentUtil.jsonStringToTag(jsonName);
         this.customModelData = customModelData;
     }
@@ -19,19 +19,22 @@
 package com.viaversion.viabackwards.api.entities.storage;
 
 import com.viaversion.viabackwards.api.BackwardsProtocol;
+import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.api.minecraft.entities.EntityType;
 import com.viaversion.nbt.tag.StringTag;
-import com.viaversion.viaversion.util.ComponentUtil;
+import com.viaversion.viaversion.libs.gson.JsonElement;
 import java.util.Locale;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class EntityReplacement {
+    private static final Object NO_NAME = new Object();
     private final BackwardsProtocol<?, ?, ?, ?> protocol;
     private final int id;
     private final int replacementId;
     private final String key;
     private ComponentType componentType = ComponentType.NONE;
     private EntityDataCreator defaultData;
+    private volatile Object entityName; // Resolved on first use, once mapping data has been loaded
 
     public EntityReplacement(BackwardsProtocol<?, ?, ?, ?> protocol, EntityType type, int replacementId) {
         this(protocol, type.name(), type.getId(), replacementId);
@@ -46,16 +49,19 @@ public class EntityReplacement {
 
     public EntityReplacement jsonName() {
         this.componentType = ComponentType.JSON;
+        this.entityName = null;
         return this;
     }
 
     public EntityReplacement tagName() {
         this.componentType = ComponentType.TAG;
+        this.entityName = null;
         return this;
     }
 
     public EntityReplacement plainName() {
         this.componentType = ComponentType.PLAIN;
+        this.entityName = null;
         return this;
     }
 
@@ -80,13 +86,30 @@ public class EntityReplacement {
             return null;
         }
 
+        Object entityName = this.entityName;
+        if (entityName == null) {
+            this.entityName = entityName = resolveEntityName();
+        }
+
+        // Hand out copies of mutable names, since they may still be changed by later rewriters
+        if (entityName == NO_NAME) {
+            return null;
+        } else if (entityName instanceof final JsonElement element) {
+            return element.deepCopy();
+        } else if (entityName instanceof final StringTag tag) {
+            return new StringTag(tag.getValue());
+        }
+        return entityName;
+    }
+
+    private Object resolveEntityName() {
         final String name = protocol.getMappingData().mappedEntityName(key);
         if (name == null) {
-            return null;
+            return NO_NAME;
         }
 
         if (componentType == ComponentType.JSON) {
-            return ComponentUtil.legacyToJson(name);
+            return ChatUtil.legacyToJson(name);
         } else if (componentType == ComponentType.TAG) {
             return new StringTag(name);
         }
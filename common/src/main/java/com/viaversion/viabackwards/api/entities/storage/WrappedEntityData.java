@@ -15,32 +15,71 @@
  * You should have received a copy of the GNU General Public License
  * along with this program.  If not, see <http://www.gnu.org/licenses/>.
  */
-
 package com.viaversion.viabackwards.api.entities.storage;
 
 import com.viaversion.viaversion.api.minecraft.entitydata.EntityData;
+import java.util.Arrays;
 import java.util.List;
+import java.util.Objects;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
-public record WrappedEntityData(List<EntityData> entityDataList) {
+/**
+ * Wraps an entity data list. Short lists are searched directly, longer ones get an index of their entries by data id
+ * once they are first looked up.
+ * <p>
+ * While in use, the list should only be modified through this wrapper to keep the index in sync.
+ */
+public final class WrappedEntityData {
+    private static final int INDEX_THRESHOLD = 8;
+    private final List<EntityData> entityDataList;
+    private EntityData @Nullable [] byId; // First entry per data id, only built for longer lists
+
+    public WrappedEntityData(List<EntityData> entityDataList) {
+        this.entityDataList = entityDataList;
+    }
+
+    public List<EntityData> entityDataList() {
+        return entityDataList;
+    }
 
     public boolean has(EntityData data) {
-        return this.entityDataList.contains(data);
+        final EntityData found = get(data.id());
+        return found != null && (found == data || this.entityDataList.contains(data));
     }
 
     public void remove(EntityData data) {
-        this.entityDataList.remove(data);
+        if (get(data.id()) != null && this.entityDataList.remove(data) && byId != null) {
+            reindex(data.id());
+        }
     }
 
     public void remove(int index) {
-        entityDataList.removeIf(data -> data.id() == index);
+        if (get(index) != null) {
+            entityDataList.removeIf(data -> data.id() == index);
+            if (byId != null) {
+                byId[index] = null;
+            }
+        }
     }
 
     public void add(EntityData data) {
         this.entityDataList.add(data);
+        if (byId != null) {
+            index(data);
+        }
     }
 
     public @Nullable EntityData get(int index) {
+        if (byId == null) {
+            if (entityDataList.size() <= INDEX_THRESHOLD) {
+                return find(index);
+            }
+            buildIndex();
+        }
+        return index >= 0 && index < byId.length ? byId[index] : null;
+    }
+
+    private @Nullable EntityData find(int index) {
         for (EntityData data : this.entityDataList) {
             if (index == data.id()) {
                 return data;
@@ -48,4 +87,43 @@ public record WrappedEntityData(List<EntityData> entityDataList) {
         }
         return null;
     }
+
+    private void buildIndex() {
+        byId = new EntityData[INDEX_THRESHOLD * 2];
+        for (final EntityData data : entityDataList) {
+            index(data);
+        }
+    }
+
+    private void index(EntityData data) {
+        final int id = data.id();
+        if (id >= byId.length) {
+            byId = Arrays.copyOf(byId, Math.max(id + 1, byId.length * 2));
+        }
+        if (byId[id] == null) {
+            byId[id] = data;
+        }
+    }
+
+    private void reindex(int id) {
+        byId[id] = find(id);
+    }
+
+    @Override
+    public boolean equals(final Object o) {
+        if (this == o) return true;
+        if (o == null || getClass() != o.getClass()) return false;
+        final WrappedEntityData that = (WrappedEntityData) o;
+        return Objects.equals(entityDataList, that.entityDataList);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hashCode(entityDataList);
+    }
+
+    @Override
+    public String toString() {
+        return "WrappedEntityData[entityDataList=" + entityDataList + "]";
+    }
 }
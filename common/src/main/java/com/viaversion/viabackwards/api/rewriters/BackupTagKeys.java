@@ -0,0 +1,59 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Names of the tags an item rewriter backs up original item data in, built once per name instead of on every use.
+ */
+public final class BackupTagKeys {
+
+    private final Map<String, String> keys = new ConcurrentHashMap<>();
+    private final String prefix;
+
+    public BackupTagKeys(final Protocol<?, ?, ?, ?> protocol) {
+        this("VB|" + protocol.getClass().getSimpleName());
+    }
+
+    public BackupTagKeys(final String prefix) {
+        this.prefix = prefix;
+    }
+
+    /**
+     * Returns the common prefix of all backup tag names.
+     *
+     * @return backup tag prefix
+     */
+    public String prefix() {
+        return prefix;
+    }
+
+    /**
+     * Returns the backup tag name for the given name, being the prefix and name separated by a {@code |}.
+     *
+     * @param name name of the backed up data
+     * @return backup tag name
+     */
+    public String key(final String name) {
+        final String key = keys.get(name);
+        return key != null ? key : keys.computeIfAbsent(name, $ -> prefix + "|" + name);
+    }
+}
@@ -106,6 +106,8 @@ public class BackwardsItemRewriter<C extends ClientboundPacketType, S extends Se
             display.put("Name", new StringTag(data.jsonName()));
             display.put(nbtTagName("customName"), new ByteTag(false));
         }
+
+        packItemBackup(item);
         return item;
     }
 
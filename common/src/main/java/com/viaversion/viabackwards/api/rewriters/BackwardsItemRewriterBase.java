@@ -17,6 +17,7 @@
  */
 package com.viaversion.viabackwards.api.rewriters;
 
+import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.BackwardsProtocol;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.item.Item;
@@ -27,6 +28,7 @@ import com.viaversion.nbt.tag.CompoundTag;
 import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
+import com.viaversion.viaversion.api.type.Types;
 import com.viaversion.viaversion.rewriter.ItemRewriter;
 import java.util.ArrayList;
 import java.util.List;
@@ -36,21 +38,50 @@ public abstract class BackwardsItemRewriterBase<C extends ClientboundPacketType,
     T extends BackwardsProtocol<C, ?, ?, S>> extends ItemRewriter<C, S, T> {
 
     protected final boolean jsonNameFormat;
+    private final BackupTagKeys backupTagKeys;
 
     protected BackwardsItemRewriterBase(T protocol, Type<Item> itemType, Type<Item[]> itemArrayType, Type<Item> mappedItemType, Type<Item[]> mappedItemArrayType, boolean jsonFormat) {
         super(protocol, itemType, itemArrayType, mappedItemType, mappedItemArrayType);
         this.jsonNameFormat = jsonFormat;
+        this.backupTagKeys = new BackupTagKeys(protocol);
     }
 
     protected BackwardsItemRewriterBase(T protocol, Type<Item> itemType, Type<Item[]> itemArrayType, boolean jsonNameFormat) {
         this(protocol, itemType, itemArrayType, itemType, itemArrayType, jsonNameFormat);
     }
 
+    @Override
+    public void registerSetContent(C packetType) {
+        protocol.registerClientbound(packetType, wrapper -> {
+            wrapper.passthrough(Types.UNSIGNED_BYTE); // Container id
+            Item[] items = wrapper.read(itemArrayType());
+            wrapper.write(mappedItemArrayType(), items);
+            ItemArrays.handleDeduplicated(items, item -> handleItemToClient(wrapper.user(), item));
+        });
+    }
+
+    @Override
+    public void registerSetContent1_17_1(C packetType) {
+        protocol.registerClientbound(packetType, wrapper -> {
+            wrapper.passthrough(Types.UNSIGNED_BYTE); // Container id
+            wrapper.passthrough(Types.VAR_INT); // State id
+            Item[] items = wrapper.read(itemArrayType());
+            wrapper.write(mappedItemArrayType(), items);
+            ItemArrays.handleDeduplicated(items, item -> handleItemToClient(wrapper.user(), item));
+
+            // Carried item
+            wrapper.write(mappedItemType(), handleItemToClient(wrapper.user(), wrapper.read(itemType())));
+        });
+    }
+
     @Override
     public @Nullable Item handleItemToServer(UserConnection connection, @Nullable Item item) {
         if (item == null) return null;
         super.handleItemToServer(connection, item);
 
+        if (item.tag() != null) {
+            CompactItemBackup.unpack(item.tag(), backupTagKeys);
+        }
         restoreDisplayTag(item);
         return item;
     }
@@ -75,6 +106,17 @@ public abstract class BackwardsItemRewriterBase<C extends ClientboundPacketType,
         }
     }
 
+    /**
+     * Moves the backed up original id, data and name state into a single compact tag if enabled.
+     *
+     * @param item item
+     */
+    protected void packItemBackup(Item item) {
+        if (item.tag() != null && ViaBackwards.getConfig().compactItemBackups()) {
+            CompactItemBackup.pack(item.tag(), item.tag().getCompoundTag("display"), backupTagKeys);
+        }
+    }
+
     protected void restoreDisplayTag(Item item) {
         if (item.tag() == null) return;
 
@@ -108,6 +150,11 @@ public abstract class BackwardsItemRewriterBase<C extends ClientboundPacketType,
 
     @Override
     public String nbtTagName() {
-        return "VB|" + protocol.getClass().getSimpleName();
+        return backupTagKeys.prefix();
+    }
+
+    @Override
+    public String nbtTagName(String tagName) {
+        return backupTagKeys.key(tagName);
     }
 }
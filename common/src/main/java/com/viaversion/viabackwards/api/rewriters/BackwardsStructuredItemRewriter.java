@@ -22,6 +22,7 @@ import com.viaversion.nbt.tag.IntTag;
 import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.NumberTag;
 import com.viaversion.nbt.tag.Tag;
+import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.BackwardsProtocol;
 import com.viaversion.viabackwards.api.data.BackwardsMappingData;
 import com.viaversion.viabackwards.api.data.MappedItem;
@@ -34,6 +35,7 @@ import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
 import com.viaversion.viaversion.api.protocol.packet.ServerboundPacketType;
 import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.Types;
 import com.viaversion.viaversion.libs.fastutil.ints.Int2IntFunction;
 import com.viaversion.viaversion.rewriter.StructuredItemRewriter;
 import java.util.ArrayList;
@@ -43,12 +45,30 @@ import org.checkerframework.checker.nullness.qual.Nullable;
 public class BackwardsStructuredItemRewriter<C extends ClientboundPacketType, S extends ServerboundPacketType,
     T extends BackwardsProtocol<C, ?, ?, S>> extends StructuredItemRewriter<C, S, T> {
 
+    private final BackupTagKeys backupTagKeys;
+
     public BackwardsStructuredItemRewriter(final T protocol, final Type<Item> itemType, final Type<Item[]> itemArrayType) {
         super(protocol, itemType, itemArrayType);
+        this.backupTagKeys = new BackupTagKeys(protocol);
     }
 
     public BackwardsStructuredItemRewriter(final T protocol, final Type<Item> itemType, final Type<Item[]> itemArrayType, final Type<Item> mappedItemType, final Type<Item[]> mappedItemArrayType) {
         super(protocol, itemType, itemArrayType, mappedItemType, mappedItemArrayType);
+        this.backupTagKeys = new BackupTagKeys(protocol);
+    }
+
+    @Override
+    public void registerSetContent1_17_1(final C packetType) {
+        protocol.registerClientbound(packetType, wrapper -> {
+            wrapper.passthrough(Types.UNSIGNED_BYTE); // Container id
+            wrapper.passthrough(Types.VAR_INT); // State id
+            final Item[] items = wrapper.read(itemArrayType());
+            wrapper.write(mappedItemArrayType(), items);
+            ItemArrays.handleDeduplicated(items, item -> handleItemToClient(wrapper.user(), item));
+
+            // Carried item
+            wrapper.write(mappedItemType(), handleItemToClient(wrapper.user(), wrapper.read(itemType())));
+        });
     }
 
     @Override
@@ -112,6 +132,10 @@ public class BackwardsStructuredItemRewriter<C extends ClientboundPacketType, S
             tag.putBoolean(nbtTagName("added_custom_name"), true);
         }
 
+        if (ViaBackwards.getConfig().compactItemBackups()) {
+            CompactItemBackup.pack(tag, null, backupTagKeys);
+        }
+
         updateItemComponents(connection, dataContainer, this::handleItemToClient, itemIdRewriter, blockIdRewriter);
         return item;
     }
@@ -139,6 +163,8 @@ public class BackwardsStructuredItemRewriter<C extends ClientboundPacketType, S
 
         final CompoundTag tag = customTag(item);
         if (tag != null) {
+            CompactItemBackup.unpack(tag, backupTagKeys);
+
             final Tag originalId = tag.remove(nbtTagName("id"));
             if (originalId instanceof IntTag) {
                 item.setIdentifier(((NumberTag) originalId).asInt());
@@ -206,6 +232,11 @@ public class BackwardsStructuredItemRewriter<C extends ClientboundPacketType, S
 
     @Override
     public String nbtTagName() {
-        return "VB|" + protocol.getClass().getSimpleName();
+        return backupTagKeys.prefix();
+    }
+
+    @Override
+    public String nbtTagName(final String tagName) {
+        return backupTagKeys.key(tagName);
     }
 }
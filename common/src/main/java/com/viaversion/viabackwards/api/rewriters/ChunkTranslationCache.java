@@ -0,0 +1,167 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.ByteBufUtil;
+import io.netty.buffer.Unpooled;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Size bounded LRU cache of translated chunk payloads shared by all connections, so that identical chunks sent to many
+ * players only have to be translated once.
+ * <p>
+ * Entries are looked up by a hash of the input bytes together with everything else the translation depends on, and
+ * the stored input is compared in full before an entry is reused. The cache is split into stripes by hash with their
+ * own locks, which are only held for the map operations themselves, not while comparing payloads.
+ */
+public final class ChunkTranslationCache {
+
+    private static final int STRIPES = 16;
+    private final Stripe[] stripes = new Stripe[STRIPES];
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+
+    public ChunkTranslationCache(final long maxBytes) {
+        for (int i = 0; i < STRIPES; i++) {
+            stripes[i] = new Stripe(maxBytes / STRIPES);
+        }
+    }
+
+    public static Key key(final ByteBuf input, final Protocol serverSide, final Protocol clientSide, final int sectionHeight, final int biomesSent) {
+        return new Key(ByteBufUtil.hashCode(input), input.readableBytes(), serverSide, clientSide, sectionHeight, biomesSent);
+    }
+
+    /**
+     * Returns the cached translation of the given input. The returned array is shared and must not be modified.
+     *
+     * @param key   cache key
+     * @param input untranslated payload, its reader index is left unchanged
+     * @return translated payload, or null if not cached
+     */
+    public byte @Nullable [] get(final Key key, final ByteBuf input) {
+        final Entry entry = stripe(key).get(key);
+        if (entry == null || !ByteBufUtil.equals(Unpooled.wrappedBuffer(entry.input), input)) {
+            misses.increment();
+            return null;
+        }
+
+        hits.increment();
+        return entry.output;
+    }
+
+    public void put(final Key key, final byte[] input, final byte[] output) {
+        stripe(key).put(key, new Entry(input, output));
+    }
+
+    public void clear() {
+        for (final Stripe stripe : stripes) {
+            stripe.clear();
+        }
+    }
+
+    public long bytes() {
+        long bytes = 0;
+        for (final Stripe stripe : stripes) {
+            bytes += stripe.bytes();
+        }
+        return bytes;
+    }
+
+    public int size() {
+        int size = 0;
+        for (final Stripe stripe : stripes) {
+            size += stripe.size();
+        }
+        return size;
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    private Stripe stripe(final Key key) {
+        final int hash = key.hashCode();
+        return stripes[(hash ^ (hash >>> 16)) & (STRIPES - 1)];
+    }
+
+    public record Key(int hash, int length, Protocol serverSide, Protocol clientSide, int sectionHeight, int biomesSent) {
+    }
+
+    private record Entry(byte[] input, byte[] output) {
+
+        long size() {
+            return (long) input.length + output.length;
+        }
+    }
+
+    private static final class Stripe {
+
+        private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75F, true);
+        private final long maxBytes;
+        private long bytes;
+
+        private Stripe(final long maxBytes) {
+            this.maxBytes = maxBytes;
+        }
+
+        synchronized @Nullable Entry get(final Key key) {
+            return entries.get(key);
+        }
+
+        synchronized void put(final Key key, final Entry entry) {
+            if (entry.size() > maxBytes) {
+                return;
+            }
+
+            final Entry previous = entries.put(key, entry);
+            if (previous != null) {
+                bytes -= previous.size();
+            }
+            bytes += entry.size();
+
+            final Iterator<Entry> iterator = entries.values().iterator();
+            while (bytes > maxBytes && iterator.hasNext()) {
+                bytes -= iterator.next().size();
+                iterator.remove();
+            }
+        }
+
+        synchronized void clear() {
+            entries.clear();
+            bytes = 0;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+
+        synchronized int size() {
+            return entries.size();
+        }
+    }
+}
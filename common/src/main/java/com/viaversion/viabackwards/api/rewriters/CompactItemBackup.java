@@ -0,0 +1,162 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.IntTag;
+import com.viaversion.nbt.tag.ShortTag;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Compact form of the original item data backed up by the base item rewriters. Instead of a separate tag per value,
+ * everything is stored in a single {@code backup} byte array tag of the rewriter's backup keys, holding a format version,
+ * flags and varint encoded values. The bare prefix is left to rewriters marking items they changed themselves.
+ * <p>
+ * Unpacking restores the usual separate tags, so reading code only has to handle that layout.
+ */
+public final class CompactItemBackup {
+
+    private static final String BACKUP = "backup";
+    private static final byte FORMAT_VERSION = 1;
+    private static final int ID = 1;
+    private static final int DATA = 1 << 1;
+    private static final int CUSTOM_NAME = 1 << 2;
+    private static final int ADDED_CUSTOM_NAME = 1 << 3;
+
+    private CompactItemBackup() {
+    }
+
+    /**
+     * Moves the backup tags of the given tag and its display tag into a single compact tag.
+     *
+     * @param tag     item tag or custom data
+     * @param display display tag of the item if present
+     * @param keys    backup tag names of the rewriter
+     */
+    public static void pack(final CompoundTag tag, @Nullable final CompoundTag display, final BackupTagKeys keys) {
+        if (tag.contains(keys.key(BACKUP))) {
+            return;
+        }
+
+        int flags = 0;
+        int id = 0;
+        int data = 0;
+        if (tag.get(keys.key("id")) instanceof final IntTag idTag) {
+            flags |= ID;
+            id = idTag.asInt();
+        }
+        if (tag.get(keys.key("data")) instanceof final ShortTag dataTag) {
+            flags |= DATA;
+            data = dataTag.asShort() & 0xFFFF;
+        }
+        if (display != null && display.get(keys.key("customName")) instanceof ByteTag) {
+            flags |= CUSTOM_NAME;
+        }
+        if (tag.get(keys.key("added_custom_name")) instanceof ByteTag) {
+            flags |= ADDED_CUSTOM_NAME;
+        }
+        if (flags == 0) {
+            return;
+        }
+
+        final byte[] buffer = new byte[16];
+        int length = 0;
+        buffer[length++] = FORMAT_VERSION;
+        length = writeVarInt(buffer, length, flags);
+        if ((flags & ID) != 0) {
+            tag.remove(keys.key("id"));
+            length = writeVarInt(buffer, length, id);
+        }
+        if ((flags & DATA) != 0) {
+            tag.remove(keys.key("data"));
+            length = writeVarInt(buffer, length, data);
+        }
+        if ((flags & CUSTOM_NAME) != 0) {
+            display.remove(keys.key("customName"));
+        }
+        if ((flags & ADDED_CUSTOM_NAME) != 0) {
+            tag.remove(keys.key("added_custom_name"));
+        }
+
+        final byte[] value = new byte[length];
+        System.arraycopy(buffer, 0, value, 0, length);
+        tag.put(keys.key(BACKUP), new ByteArrayTag(value));
+    }
+
+    /**
+     * Restores the separate backup tags from a compact tag, if present.
+     *
+     * @param tag  item tag or custom data
+     * @param keys backup tag names of the rewriter
+     */
+    public static void unpack(final CompoundTag tag, final BackupTagKeys keys) {
+        if (!(tag.get(keys.key(BACKUP)) instanceof final ByteArrayTag backupTag)) {
+            return;
+        }
+
+        final byte[] value = backupTag.getValue();
+        if (value.length == 0 || value[0] != FORMAT_VERSION) {
+            return;
+        }
+
+        tag.remove(keys.key(BACKUP));
+        final int[] index = {1};
+        final int flags = readVarInt(value, index);
+        if ((flags & ID) != 0) {
+            tag.putInt(keys.key("id"), readVarInt(value, index));
+        }
+        if ((flags & DATA) != 0) {
+            tag.putShort(keys.key("data"), (short) readVarInt(value, index));
+        }
+        if ((flags & CUSTOM_NAME) != 0) {
+            final CompoundTag display = tag.getCompoundTag("display");
+            if (display != null) {
+                display.put(keys.key("customName"), new ByteTag(false));
+            }
+        }
+        if ((flags & ADDED_CUSTOM_NAME) != 0) {
+            tag.putBoolean(keys.key("added_custom_name"), true);
+        }
+    }
+
+    private static int writeVarInt(final byte[] buffer, int index, int value) {
+        while ((value & ~0x7F) != 0) {
+            buffer[index++] = (byte) ((value & 0x7F) | 0x80);
+            value >>>= 7;
+        }
+        buffer[index++] = (byte) value;
+        return index;
+    }
+
+    private static int readVarInt(final byte[] buffer, final int[] index) {
+        int value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (index[0] >= buffer.length || shift >= 35) {
+                return 0;
+            }
+            b = buffer[index[0]++];
+            value |= (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
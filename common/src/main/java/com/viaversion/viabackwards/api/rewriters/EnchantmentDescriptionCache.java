@@ -0,0 +1,55 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Enchantment lore descriptions by enchantment and level, built once and shared by all connections using the rewriter.
+ * Only levels up to {@value #MAX_CACHED_LEVEL} are cached to keep it bounded.
+ *
+ * @param <E> enchantment identifier type
+ * @param <D> description type
+ */
+final class EnchantmentDescriptionCache<E, D> {
+
+    private static final int MAX_CACHED_LEVEL = 255;
+    private final Map<DescriptionKey<E>, D> descriptions = new ConcurrentHashMap<>();
+    private final DescriptionFactory<E, D> factory;
+
+    EnchantmentDescriptionCache(final DescriptionFactory<E, D> factory) {
+        this.factory = factory;
+    }
+
+    D get(final E enchantment, final int level) {
+        if (level < 0 || level > MAX_CACHED_LEVEL) {
+            return factory.create(enchantment, level);
+        }
+        return descriptions.computeIfAbsent(new DescriptionKey<>(enchantment, level), key -> factory.create(key.enchantment(), key.level()));
+    }
+
+    @FunctionalInterface
+    interface DescriptionFactory<E, D> {
+
+        D create(E enchantment, int level);
+    }
+
+    private record DescriptionKey<E>(E enchantment, int level) {
+    }
+}
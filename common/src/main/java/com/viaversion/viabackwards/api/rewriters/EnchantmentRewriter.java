@@ -38,6 +38,7 @@ public class EnchantmentRewriter {
     public static final String ENCHANTMENT_LEVEL_TRANSLATION = "enchantment.level.%s";
 
     protected final Map<String, String> enchantmentMappings = new HashMap<>();
+    private final EnchantmentDescriptionCache<String, String> descriptions = new EnchantmentDescriptionCache<>(this::createEnchantmentDescription);
     protected final BackwardsItemRewriter<?, ?, ?> itemRewriter;
     private final boolean jsonFormat;
 
@@ -105,14 +106,7 @@ public class EnchantmentRewriter {
 
                 NumberTag levelTag = enchantmentEntry.getNumberTag("lvl");
                 int level = levelTag != null ? levelTag.asInt() : 1;
-                String loreValue;
-                if (jsonFormat) {
-                    loreValue = ChatUtil.legacyToJsonString(remappedName, ENCHANTMENT_LEVEL_TRANSLATION.formatted(level), true);
-                } else {
-                    loreValue = remappedName + " " + getRomanNumber(level);
-                }
-
-                loreToAdd.add(new StringTag(loreValue));
+                loreToAdd.add(new StringTag(descriptions.get(remappedName, level)));
             }
         }
 
@@ -143,6 +137,13 @@ public class EnchantmentRewriter {
         }
     }
 
+    private String createEnchantmentDescription(String remappedName, int level) {
+        if (jsonFormat) {
+            return ChatUtil.legacyToJsonString(remappedName, ENCHANTMENT_LEVEL_TRANSLATION.formatted(level), true);
+        }
+        return remappedName + " " + getRomanNumber(level);
+    }
+
     public void rewriteEnchantmentsToServer(CompoundTag tag, boolean storedEnchant) {
         // Just restore the original tag ig present (lore is always restored in the item rewriter)
         String key = storedEnchant ? "StoredEnchantments" : "Enchantments";
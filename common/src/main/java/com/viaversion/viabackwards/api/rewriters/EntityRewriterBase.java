@@ -38,8 +38,11 @@ import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectMap;
 import com.viaversion.viaversion.libs.fastutil.ints.Int2ObjectOpenHashMap;
 import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.rewriter.EntityRewriter;
+import com.viaversion.viaversion.rewriter.entitydata.EntityDataHandler;
 import com.viaversion.viaversion.rewriter.entitydata.EntityDataHandlerEvent;
+import java.util.HashMap;
 import java.util.List;
+import java.util.Map;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 /**
@@ -77,8 +80,17 @@ public abstract class EntityRewriterBase<C extends ClientboundPacketType, T exte
 
         // Set the mapped entity name if there is no custom name set already
         final EntityReplacement entityMapping = entityDataForType(entity.entityType());
-        final Object displayNameObject;
-        if (entityMapping != null && (displayNameObject = entityMapping.entityName()) != null) {
+        if (entityMapping == null) {
+            return;
+        }
+
+        final Object displayNameObject = entityMapping.entityName();
+        final boolean addBaseData = entityMapping.hasBaseData() && initialEntityData;
+        if (displayNameObject == null && !addBaseData) {
+            return;
+        }
+
+        if (displayNameObject != null) {
             final EntityData displayName = getData(displayNameIndex, entityDataList);
             if (initialEntityData) {
                 if (displayName == null) {
@@ -98,7 +110,7 @@ public abstract class EntityRewriterBase<C extends ClientboundPacketType, T exte
         }
 
         // Add any other extra data for mapped entities
-        if (entityMapping != null && entityMapping.hasBaseData() && initialEntityData) {
+        if (addBaseData) {
             entityMapping.defaultData().createData(new WrappedEntityData(entityDataList));
         }
     }
@@ -171,25 +183,19 @@ public abstract class EntityRewriterBase<C extends ClientboundPacketType, T exte
         @Nullable EntityDataType componentType,
         @Nullable EntityDataType optionalComponentType
     ) {
-        filter().handler((event, data) -> {
-            EntityDataType type = data.dataType();
-            if (type == itemType) {
-                protocol.getItemRewriter().handleItemToClient(event.user(), data.value());
-            } else if (type == blockStateType) {
-                int value = data.value();
-                data.setValue(protocol.getMappingData().getNewBlockStateId(value));
-            } else if (type == optionalBlockStateType) {
-                int value = data.value();
-                if (value != 0) {
-                    data.setValue(protocol.getMappingData().getNewBlockStateId(value));
-                }
-            } else if (type == particleType) {
-                rewriteParticle(event.user(), data.value());
-            } else if (type == optionalComponentType || type == componentType) {
-                JsonElement text = data.value();
-                protocol.getComponentRewriter().processText(event.user(), text);
-            }
-        });
+        final Map<EntityDataType, EntityDataHandler> handlers = new HashMap<>();
+        putTypeHandler(handlers, itemType, (event, data) -> protocol.getItemRewriter().handleItemToClient(event.user(), data.value()));
+        putTypeHandler(handlers, blockStateType, this::handleBlockStateData);
+        putTypeHandler(handlers, optionalBlockStateType, this::handleOptionalBlockStateData);
+        putTypeHandler(handlers, particleType, (event, data) -> rewriteParticle(event.user(), data.value()));
+
+        final EntityDataHandler componentHandler = (event, data) -> {
+            JsonElement text = data.value();
+            protocol.getComponentRewriter().processText(event.user(), text);
+        };
+        putTypeHandler(handlers, componentType, componentHandler);
+        putTypeHandler(handlers, optionalComponentType, componentHandler);
+        filter().handler(typeIndexedHandler(handlers));
     }
 
     public void registerEntityDataTypeHandler1_20_3(
@@ -201,29 +207,72 @@ public abstract class EntityRewriterBase<C extends ClientboundPacketType, T exte
         @Nullable EntityDataType componentType,
         @Nullable EntityDataType optionalComponentType
     ) {
-        filter().handler((event, data) -> {
-            EntityDataType type = data.dataType();
-            if (type == itemType) {
-                data.setValue(protocol.getItemRewriter().handleItemToClient(event.user(), data.value()));
-            } else if (type == blockStateType) {
-                int value = data.value();
-                data.setValue(protocol.getMappingData().getNewBlockStateId(value));
-            } else if (type == optionalBlockStateType) {
-                int value = data.value();
-                if (value != 0) {
-                    data.setValue(protocol.getMappingData().getNewBlockStateId(value));
-                }
-            } else if (type == particleType) {
-                rewriteParticle(event.user(), data.value());
-            } else if (type == particlesType) {
-                Particle[] particles = data.value();
-                for (final Particle particle : particles) {
-                    rewriteParticle(event.user(), particle);
-                }
-            } else if (type == optionalComponentType || type == componentType) {
-                protocol.getComponentRewriter().processTag(event.user(), data.value());
+        final Map<EntityDataType, EntityDataHandler> handlers = new HashMap<>();
+        putTypeHandler(handlers, itemType, (event, data) -> data.setValue(protocol.getItemRewriter().handleItemToClient(event.user(), data.value())));
+        putTypeHandler(handlers, blockStateType, this::handleBlockStateData);
+        putTypeHandler(handlers, optionalBlockStateType, this::handleOptionalBlockStateData);
+        putTypeHandler(handlers, particleType, (event, data) -> rewriteParticle(event.user(), data.value()));
+        putTypeHandler(handlers, particlesType, (event, data) -> {
+            Particle[] particles = data.value();
+            for (final Particle particle : particles) {
+                rewriteParticle(event.user(), particle);
             }
         });
+
+        final EntityDataHandler componentHandler = (event, data) -> protocol.getComponentRewriter().processTag(event.user(), data.value());
+        putTypeHandler(handlers, componentType, componentHandler);
+        putTypeHandler(handlers, optionalComponentType, componentHandler);
+        filter().handler(typeIndexedHandler(handlers));
+    }
+
+    private void handleBlockStateData(EntityDataHandlerEvent event, EntityData data) {
+        int value = data.value();
+        data.setValue(protocol.getMappingData().getNewBlockStateId(value));
+    }
+
+    private void handleOptionalBlockStateData(EntityDataHandlerEvent event, EntityData data) {
+        int value = data.value();
+        if (value != 0) {
+            data.setValue(protocol.getMappingData().getNewBlockStateId(value));
+        }
+    }
+
+    private static void putTypeHandler(Map<EntityDataType, EntityDataHandler> handlers, @Nullable EntityDataType type, EntityDataHandler handler) {
+        if (type != null) {
+            handlers.putIfAbsent(type, handler);
+        }
+    }
+
+    /**
+     * Returns a handler dispatching to the given handlers by the data's type id,
+     * so that data of any other type only costs a single array read.
+     *
+     * @param handlers handlers by entity data type
+     * @return type indexed handler
+     */
+    private static EntityDataHandler typeIndexedHandler(Map<EntityDataType, EntityDataHandler> handlers) {
+        int maxTypeId = -1;
+        for (final EntityDataType type : handlers.keySet()) {
+            maxTypeId = Math.max(maxTypeId, type.typeId());
+        }
+
+        final EntityDataType[] types = new EntityDataType[maxTypeId + 1];
+        final EntityDataHandler[] typeHandlers = new EntityDataHandler[maxTypeId + 1];
+        for (final Map.Entry<EntityDataType, EntityDataHandler> entry : handlers.entrySet()) {
+            final int typeId = entry.getKey().typeId();
+            Preconditions.checkArgument(types[typeId] == null, "Duplicate entity data type id %s", typeId);
+            types[typeId] = entry.getKey();
+            typeHandlers[typeId] = entry.getValue();
+        }
+
+        return (event, data) -> {
+            final EntityDataType type = data.dataType();
+            final int typeId = type.typeId();
+            // Also compare the type itself, as earlier handlers may have already changed it to one of another version
+            if (typeId >= 0 && typeId < types.length && types[typeId] == type) {
+                typeHandlers[typeId].handle(event, data);
+            }
+        };
     }
 
     // ONLY TRACKS, DOESN'T REWRITE IDS
@@ -0,0 +1,329 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viabackwards.api.BackwardsProtocol;
+import com.viaversion.viabackwards.api.data.ComposedMappings;
+import com.viaversion.viabackwards.api.type.RemainingBytesSliceType;
+import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import com.viaversion.viaversion.api.data.Mappings;
+import com.viaversion.viaversion.api.data.entity.EntityTracker;
+import com.viaversion.viaversion.api.minecraft.blockentity.BlockEntity;
+import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
+import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
+import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
+import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
+import com.viaversion.viaversion.api.protocol.remapper.PacketHandler;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Type;
+import com.viaversion.viaversion.api.type.Types;
+import com.viaversion.viaversion.util.MathUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.List;
+import java.util.function.BiConsumer;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Chunk handler for 1.18+ chunk formats that can be fused with the handlers of directly following protocols.
+ * <p>
+ * The first protocol of a run of consecutive fusable protocols reads the chunk once, maps its palettes with the
+ * {@link ComposedMappings} of the run, applies the block entity changes of every protocol in sequence, and writes it in
+ * the format of the last one. The other protocols
+ * of the run then pass the packet through untouched.
+ *
+ * @param <C> clientbound packet type
+ */
+public final class FusedChunkRewriter<C extends ClientboundPacketType> {
+
+    private static final Type<ByteBuf> REMAINING_BYTES_SLICE = new RemainingBytesSliceType();
+    private final BackwardsProtocol<C, ?, ?, ?> protocol;
+    private final ChunkTypeSupplier inputType;
+    private final ChunkTypeSupplier outputType;
+    private BiConsumer<UserConnection, BlockEntity> blockEntityHandler;
+    private PacketHandler afterChunkHandler;
+
+    private FusedChunkRewriter(final BackwardsProtocol<C, ?, ?, ?> protocol, @Nullable final ChunkTypeSupplier inputType, @Nullable final ChunkTypeSupplier outputType) {
+        this.protocol = protocol;
+        this.inputType = inputType;
+        this.outputType = outputType;
+    }
+
+    /**
+     * Creates a chunk rewriter mapping block states and block entities with the protocol's mapping data.
+     *
+     * @param protocol   protocol
+     * @param inputType  chunk type of the protocol's server version
+     * @param outputType chunk type of the protocol's client version
+     * @param <C>        clientbound packet type
+     * @return chunk rewriter
+     */
+    public static <C extends ClientboundPacketType> FusedChunkRewriter<C> of(final BackwardsProtocol<C, ?, ?, ?> protocol, final ChunkTypeSupplier inputType, final ChunkTypeSupplier outputType) {
+        return new FusedChunkRewriter<>(protocol, inputType, outputType);
+    }
+
+    /**
+     * Creates a chunk rewriter for protocols that don't change chunks at all, only so that runs can span them.
+     *
+     * @param protocol protocol
+     * @param <C>      clientbound packet type
+     * @return chunk rewriter
+     */
+    public static <C extends ClientboundPacketType> FusedChunkRewriter<C> passthrough(final BackwardsProtocol<C, ?, ?, ?> protocol) {
+        return new FusedChunkRewriter<>(protocol, null, null);
+    }
+
+    /**
+     * Sets a handler called for every block entity with a tag after its type id has been mapped.
+     *
+     * @param blockEntityHandler block entity handler
+     * @return self
+     */
+    public FusedChunkRewriter<C> blockEntityHandler(final BiConsumer<UserConnection, BlockEntity> blockEntityHandler) {
+        this.blockEntityHandler = blockEntityHandler;
+        return this;
+    }
+
+    /**
+     * Sets a handler to write additional data directly after the chunk.
+     *
+     * @param afterChunkHandler handler called after the chunk has been written
+     * @return self
+     */
+    public FusedChunkRewriter<C> afterChunkHandler(final PacketHandler afterChunkHandler) {
+        this.afterChunkHandler = afterChunkHandler;
+        return this;
+    }
+
+    public void register(final C packetType) {
+        protocol.setFusedChunkRewriter(this);
+        protocol.registerClientbound(packetType, this::handle);
+    }
+
+    private void handle(final PacketWrapper wrapper) {
+        final UserConnection user = wrapper.user();
+        final FusedChunkStorage storage = user.get(FusedChunkStorage.class);
+        if (storage != null && storage.wrapper != null) {
+            final boolean fused = storage.wrapper == wrapper;
+            if (!fused || storage.last == this) {
+                storage.clear();
+            }
+            if (fused) {
+                // Already rewritten by an earlier protocol of the run
+                return;
+            }
+        }
+
+        // Clientbound packets go through the pipeline from the back, so the following protocols are the ones before this one
+        final List<Protocol> pipes = user.getProtocolInfo().getPipeline().pipes();
+        final int index = pipes.indexOf(protocol);
+        int lastIndex = index;
+        while (lastIndex > 0 && pipes.get(lastIndex - 1) instanceof BackwardsProtocol<?, ?, ?, ?> next && next.getFusedChunkRewriter() != null) {
+            lastIndex--;
+        }
+
+        FusedChunkRewriter<?> firstRewriter = null;
+        FusedChunkRewriter<?> lastRewriter = null;
+        for (int i = index; i >= lastIndex; i--) {
+            final FusedChunkRewriter<?> rewriter = rewriter(pipes, i);
+            if (!rewriter.passthrough()) {
+                if (firstRewriter == null) {
+                    firstRewriter = rewriter;
+                }
+                lastRewriter = rewriter;
+            }
+        }
+
+        if (firstRewriter == null) {
+            return;
+        }
+
+        // Raw payloads can only be cached if the run covers the whole path, without other protocols touching the chunk
+        final ChunkTranslationCache cache = ViaBackwards.getChunkTranslationCache();
+        if (cache != null && onlyBaseProtocols(pipes, 0, lastIndex) && onlyBaseProtocols(pipes, index + 1, pipes.size())) {
+            translateCached(cache, wrapper, pipes, index, lastIndex, firstRewriter, lastRewriter);
+        } else {
+            translate(wrapper, pipes, index, lastIndex, firstRewriter, lastRewriter);
+        }
+
+        if (lastIndex != index) {
+            FusedChunkStorage fusedStorage = storage;
+            if (fusedStorage == null) {
+                fusedStorage = new FusedChunkStorage();
+                user.put(fusedStorage);
+            }
+            fusedStorage.wrapper = wrapper;
+            fusedStorage.last = rewriter(pipes, lastIndex);
+        }
+    }
+
+    private static void translate(
+        final PacketWrapper wrapper,
+        final List<Protocol> pipes,
+        final int index,
+        final int lastIndex,
+        final FusedChunkRewriter<?> firstRewriter,
+        final FusedChunkRewriter<?> lastRewriter
+    ) {
+        final UserConnection user = wrapper.user();
+        final Chunk chunk = wrapper.read(firstRewriter.chunkType(user, false));
+
+        // Sections outside of y 0 to 255 are dropped for pre-1.17 clients, so they don't need to be mapped
+        final ChunkSection[] sections = chunk.getSections();
+        int fromSection = 0;
+        int toSection = sections.length;
+        if (user.getProtocolInfo().protocolVersion().olderThan(ProtocolVersion.v1_17)) {
+            fromSection = Math.max(0, -(firstRewriter.protocol.getEntityRewriter().tracker(user).currentMinY() >> 4));
+            toSection = Math.min(sections.length, fromSection + 16);
+        }
+        mapBlockStates(sections, fromSection, toSection, ComposedMappings.of(pipes.subList(lastIndex, index + 1)));
+        for (int i = index; i >= lastIndex; i--) {
+            rewriter(pipes, i).rewriteBlockEntities(user, chunk);
+        }
+        wrapper.write(lastRewriter.chunkType(user, true), chunk);
+
+        // Every protocol would have added its data directly after its chunk, so the last one's data comes first
+        for (int i = lastIndex; i <= index; i++) {
+            final FusedChunkRewriter<?> rewriter = rewriter(pipes, i);
+            if (rewriter.afterChunkHandler != null) {
+                rewriter.afterChunkHandler.handle(wrapper);
+            }
+        }
+    }
+
+    private static void translateCached(
+        final ChunkTranslationCache cache,
+        final PacketWrapper wrapper,
+        final List<Protocol> pipes,
+        final int index,
+        final int lastIndex,
+        final FusedChunkRewriter<?> firstRewriter,
+        final FusedChunkRewriter<?> lastRewriter
+    ) {
+        final UserConnection user = wrapper.user();
+        final EntityTracker tracker = firstRewriter.protocol.getEntityRewriter().tracker(user);
+        final ByteBuf input = wrapper.read(REMAINING_BYTES_SLICE);
+        byte[] output;
+        try {
+            // Hits are found without copying the input, it is only copied to be stored on a miss
+            final ChunkTranslationCache.Key key = ChunkTranslationCache.key(input, pipes.get(index), pipes.get(lastIndex), tracker.currentWorldSectionHeight(), tracker.biomesSent());
+            output = cache.get(key, input);
+            if (output == null) {
+                final byte[] inputBytes = new byte[input.readableBytes()];
+                input.getBytes(input.readerIndex(), inputBytes);
+                final PacketWrapper translation = PacketWrapper.create(null, Unpooled.wrappedBuffer(inputBytes), user);
+                translate(translation, pipes, index, lastIndex, firstRewriter, lastRewriter);
+
+                final ByteBuf buffer = Unpooled.buffer(inputBytes.length);
+                translation.writeToBuffer(buffer);
+                output = new byte[buffer.readableBytes()];
+                buffer.readBytes(output);
+                cache.put(key, inputBytes, output);
+            }
+        } finally {
+            input.release();
+        }
+        wrapper.write(Types.REMAINING_BYTES, output);
+    }
+
+    private static boolean onlyBaseProtocols(final List<Protocol> pipes, final int from, final int to) {
+        for (int i = from; i < to; i++) {
+            if (!pipes.get(i).isBaseProtocol()) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static void mapBlockStates(final ChunkSection[] sections, final int fromSection, final int toSection, final ComposedMappings mappings) {
+        if (mappings.getBlockStateMappings() == null) {
+            return;
+        }
+
+        for (int sectionIndex = fromSection; sectionIndex < toSection; sectionIndex++) {
+            final ChunkSection section = sections[sectionIndex];
+            if (section == null) {
+                continue;
+            }
+
+            final DataPalette blockPalette = section.palette(PaletteType.BLOCKS);
+            for (int i = 0; i < blockPalette.size(); i++) {
+                final int id = blockPalette.idByIndex(i);
+                blockPalette.setIdByIndex(i, mappings.getNewBlockStateId(id));
+            }
+        }
+    }
+
+    private void rewriteBlockEntities(final UserConnection user, final Chunk chunk) {
+        if (passthrough()) {
+            return;
+        }
+
+        final Mappings blockEntityMappings = protocol.getMappingData().getBlockEntityMappings();
+        final List<BlockEntity> blockEntities = chunk.blockEntities();
+        for (int i = 0; i < blockEntities.size(); i++) {
+            BlockEntity blockEntity = blockEntities.get(i);
+            if (blockEntityMappings != null) {
+                blockEntity = blockEntity.withTypeId(blockEntityMappings.getNewIdOrDefault(blockEntity.typeId(), blockEntity.typeId()));
+                blockEntities.set(i, blockEntity);
+            }
+            if (blockEntityHandler != null && blockEntity.tag() != null) {
+                blockEntityHandler.accept(user, blockEntity);
+            }
+        }
+    }
+
+    private Type<Chunk> chunkType(final UserConnection user, final boolean output) {
+        final EntityTracker tracker = protocol.getEntityRewriter().tracker(user);
+        final Mappings blockStateMappings = protocol.getMappingData().getBlockStateMappings();
+        final int blockStates = output ? blockStateMappings.mappedSize() : blockStateMappings.size();
+        return (output ? outputType : inputType).supply(tracker.currentWorldSectionHeight(), MathUtil.ceilLog2(blockStates), MathUtil.ceilLog2(tracker.biomesSent()));
+    }
+
+    private boolean passthrough() {
+        return inputType == null;
+    }
+
+    private static FusedChunkRewriter<?> rewriter(final List<Protocol> pipes, final int index) {
+        return ((BackwardsProtocol<?, ?, ?, ?>) pipes.get(index)).getFusedChunkRewriter();
+    }
+
+    @FunctionalInterface
+    public interface ChunkTypeSupplier {
+
+        Type<Chunk> supply(int ySectionCount, int globalPaletteBlockBits, int globalPaletteBiomeBits);
+    }
+
+    /**
+     * Marks the packet currently going through the pipeline as already rewritten up to the last protocol of a run.
+     */
+    private static final class FusedChunkStorage implements StorableObject {
+        private PacketWrapper wrapper;
+        private FusedChunkRewriter<?> last;
+
+        void clear() {
+            wrapper = null;
+            last = null;
+        }
+    }
+}
@@ -0,0 +1,71 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.UnaryOperator;
+
+final class ItemArrays {
+
+    private ItemArrays() {
+    }
+
+    /**
+     * Handles all items of the array, only translating each distinct item once and copying the result for its duplicates.
+     * Equal items are grouped before anything is translated, as the handler may modify its input.
+     *
+     * @param items   items to handle in place
+     * @param handler item handler, returning the translated item
+     */
+    static void handleDeduplicated(final Item[] items, final UnaryOperator<Item> handler) {
+        if (items.length < 2) {
+            for (int i = 0; i < items.length; i++) {
+                items[i] = handler.apply(items[i]);
+            }
+            return;
+        }
+
+        final Map<Item, Integer> firstIndexes = new HashMap<>();
+        final int[] sourceIndexes = new int[items.length];
+        for (int i = 0; i < items.length; i++) {
+            final Integer firstIndex = firstIndexes.putIfAbsent(items[i], i);
+            sourceIndexes[i] = firstIndex != null ? firstIndex : i;
+        }
+
+        if (firstIndexes.size() == items.length) {
+            // Nothing to deduplicate
+            for (int i = 0; i < items.length; i++) {
+                items[i] = handler.apply(items[i]);
+            }
+            return;
+        }
+
+        for (int i = 0; i < items.length; i++) {
+            final int sourceIndex = sourceIndexes[i];
+            if (sourceIndex == i) {
+                items[i] = handler.apply(items[i]);
+            } else {
+                // Already translated further up in the array
+                final Item translated = items[sourceIndex];
+                items[i] = translated != null ? translated.copy() : null;
+            }
+        }
+    }
+}
@@ -22,6 +22,7 @@ import com.viaversion.viabackwards.api.BackwardsProtocol;
 import com.viaversion.viabackwards.api.data.MappedLegacyBlockItem;
 import com.viaversion.viabackwards.api.data.BackwardsMappingDataLoader;
 import com.viaversion.viabackwards.protocol.v1_12to1_11_1.data.BlockColors1_11_1;
+import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
 import com.viaversion.viaversion.api.minecraft.chunks.Chunk;
@@ -48,7 +49,6 @@ import com.viaversion.nbt.tag.NumberTag;
 import com.viaversion.nbt.tag.ShortTag;
 import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
-import com.viaversion.viaversion.util.ComponentUtil;
 import java.util.HashMap;
 import java.util.Map;
 import com.viaversion.viaversion.util.IdAndData;
@@ -59,6 +59,9 @@ public abstract class LegacyBlockItemRewriter<C extends ClientboundPacketType, S
 
     protected final Int2ObjectMap<MappedLegacyBlockItem> itemReplacements = new Int2ObjectOpenHashMap<>(8); // Raw id -> mapped data
     protected final Int2ObjectMap<MappedLegacyBlockItem> blockReplacements = new Int2ObjectOpenHashMap<>(8); // Raw id -> mapped data
+    // Flattened replacements by raw id, already including the data independent fallback. Built on first lookup.
+    private volatile MappedLegacyBlockItem[] itemReplacementTable;
+    private volatile MappedLegacyBlockItem[] blockReplacementTable;
 
     protected LegacyBlockItemRewriter(T protocol, String name, Type<Item> itemType, Type<Item[]> itemArrayType, Type<Item> mappedItemType, Type<Item[]> mappedItemArrayType) {
         super(protocol, itemType, itemArrayType, mappedItemType, mappedItemArrayType, false);
@@ -204,6 +207,8 @@ public abstract class LegacyBlockItemRewriter<C extends ClientboundPacketType, S
                 display.putString("Name", value.replace("%vb_color%", BlockColors1_11_1.get(originalData)));
             }
         }
+
+        packItemBackup(item);
         return item;
     }
 
@@ -244,6 +249,10 @@ public abstract class LegacyBlockItemRewriter<C extends ClientboundPacketType, S
             return null;
         }
 
+        return mappedBlock(settings, data);
+    }
+
+    private static IdAndData mappedBlock(MappedLegacyBlockItem settings, int data) {
         IdAndData block = settings.getBlock();
         // For some blocks, the data can still be useful (:
         if (block.getData() == -1) {
@@ -304,19 +313,14 @@ public abstract class LegacyBlockItemRewriter<C extends ClientboundPacketType, S
             DataPalette palette = section.palette(PaletteType.BLOCKS);
             for (int j = 0; j < palette.size(); j++) {
                 int block = palette.idByIndex(j);
-                int btype = block >> 4;
-                int meta = block & 0xF;
-
-                IdAndData b = handleBlock(btype, meta);
-                if (b != null) {
-                    palette.setIdByIndex(j, IdAndData.toRawData(b.getId(), b.getData()));
-                }
+                MappedLegacyBlockItem settings = getMappedBlock(block);
+                if (settings == null) continue;
 
-                // We already know that is has a handler
-                if (hasBlockEntityHandler) continue;
+                IdAndData b = settings.getBlock();
+                int data = b.getData() != -1 ? b.getData() : IdAndData.getData(block);
+                palette.setIdByIndex(j, IdAndData.toRawData(b.getId(), data));
 
-                MappedLegacyBlockItem settings = getMappedBlock(block);
-                if (settings != null && settings.hasBlockEntityHandler()) {
+                if (settings.hasBlockEntityHandler()) {
                     hasBlockEntityHandler = true;
                 }
             }
@@ -355,24 +359,50 @@ public abstract class LegacyBlockItemRewriter<C extends ClientboundPacketType, S
         CompoundTag displayTag = new CompoundTag();
         tag.put("display", displayTag);
         text = "§r" + text;
-        displayTag.putString("Name", jsonNameFormat ? ComponentUtil.legacyToJsonString(text) : text);
+        displayTag.putString("Name", jsonNameFormat ? ChatUtil.legacyToJsonString(text) : text);
         return tag;
     }
 
     private @Nullable MappedLegacyBlockItem getMappedBlock(int id, int data) {
-        MappedLegacyBlockItem mapping = blockReplacements.get(IdAndData.toRawData(id, data));
-        return mapping != null ? mapping : blockReplacements.get(IdAndData.toRawData(id, -1));
+        return getMappedBlock(IdAndData.toRawData(id, data));
     }
 
     private @Nullable MappedLegacyBlockItem getMappedItem(int id, int data) {
-        MappedLegacyBlockItem mapping = itemReplacements.get(IdAndData.toRawData(id, data));
-        return mapping != null ? mapping : itemReplacements.get(IdAndData.toRawData(id, -1));
+        MappedLegacyBlockItem[] table = itemReplacementTable;
+        if (table == null) {
+            itemReplacementTable = table = createReplacementTable(itemReplacements);
+        }
+        return lookup(table, IdAndData.toRawData(id, data));
     }
 
     private @Nullable MappedLegacyBlockItem getMappedBlock(int rawId) {
-        int id = IdAndData.getId(rawId);
-        int data = IdAndData.getData(rawId);
-        return getMappedBlock(id, data);
+        MappedLegacyBlockItem[] table = blockReplacementTable;
+        if (table == null) {
+            blockReplacementTable = table = createReplacementTable(blockReplacements);
+        }
+        return lookup(table, rawId);
+    }
+
+    private static @Nullable MappedLegacyBlockItem lookup(MappedLegacyBlockItem[] table, int rawId) {
+        return rawId >= 0 && rawId < table.length ? table[rawId] : null;
+    }
+
+    /**
+     * Flattens the replacements into an array indexed by raw id, with ids without their own entry falling back to the
+     * data independent one. Replacements added after the first lookup are therefore not picked up.
+     */
+    private static MappedLegacyBlockItem[] createReplacementTable(Int2ObjectMap<MappedLegacyBlockItem> replacements) {
+        int maxRawId = -1;
+        for (int rawId : replacements.keySet()) {
+            maxRawId = Math.max(maxRawId, rawId);
+        }
+
+        MappedLegacyBlockItem[] table = new MappedLegacyBlockItem[maxRawId + 1];
+        for (int rawId = 0; rawId < table.length; rawId++) {
+            MappedLegacyBlockItem mapping = replacements.get(rawId);
+            table[rawId] = mapping != null ? mapping : replacements.get(IdAndData.toRawData(IdAndData.getId(rawId), -1));
+        }
+        return table;
     }
 
     protected JsonObject readMappingsFile(final String name) {
@@ -35,7 +35,7 @@ import java.util.Set;
 public class LegacyEnchantmentRewriter {
 
     private final Map<Short, String> enchantmentMappings = new HashMap<>();
-    private final String nbtTagName;
+    private final BackupTagKeys backupTagKeys;
     private final boolean dummyEnchantment;
 
     private Set<Short> hideLevelForEnchants;
@@ -45,7 +45,7 @@ public class LegacyEnchantmentRewriter {
     }
 
     public LegacyEnchantmentRewriter(String nbtTagName, boolean dummyEnchantment) {
-        this.nbtTagName = nbtTagName;
+        this.backupTagKeys = new BackupTagKeys(nbtTagName);
         this.dummyEnchantment = dummyEnchantment;
     }
 
@@ -69,10 +69,10 @@ public class LegacyEnchantmentRewriter {
         CompoundTag tag = item.tag();
         if (tag == null) return;
 
-        if (tag.getListTag(nbtTagName + "|ench", CompoundTag.class) != null) {
+        if (tag.getListTag(backupTagKeys.key("ench"), CompoundTag.class) != null) {
             rewriteEnchantmentsToServer(tag, false);
         }
-        if (tag.getListTag(nbtTagName + "|StoredEnchantments", CompoundTag.class) != null) {
+        if (tag.getListTag(backupTagKeys.key("StoredEnchantments"), CompoundTag.class) != null) {
             rewriteEnchantmentsToServer(tag, true);
         }
     }
@@ -107,20 +107,20 @@ public class LegacyEnchantmentRewriter {
                 dummyEnchantment.putShort("lvl", (short) 0);
 
                 enchantments.add(dummyEnchantment);
-                tag.put(nbtTagName + "|dummyEnchant", new ByteTag(false));
+                tag.put(backupTagKeys.key("dummyEnchant"), new ByteTag(false));
 
                 NumberTag hideFlags = tag.getNumberTag("HideFlags");
                 if (hideFlags == null) {
                     hideFlags = new IntTag();
                 } else {
-                    tag.putInt(nbtTagName + "|oldHideFlags", hideFlags.asByte());
+                    tag.putInt(backupTagKeys.key("oldHideFlags"), hideFlags.asByte());
                 }
 
                 int flags = hideFlags.asByte() | 1;
                 tag.putInt("HideFlags", flags);
             }
 
-            tag.put(nbtTagName + "|" + key, remappedEnchantments);
+            tag.put(backupTagKeys.key(key), remappedEnchantments);
 
             CompoundTag display = tag.getCompoundTag("display");
             if (display == null) {
@@ -143,7 +143,7 @@ public class LegacyEnchantmentRewriter {
             enchantments = new ListTag<>(CompoundTag.class);
         }
 
-        if (!storedEnchant && tag.remove(nbtTagName + "|dummyEnchant") != null) {
+        if (!storedEnchant && tag.remove(backupTagKeys.key("dummyEnchant")) != null) {
             for (CompoundTag enchantment : enchantments.copy()) {
                 NumberTag idTag = enchantment.getNumberTag("id");
                 NumberTag levelTag = enchantment.getNumberTag("lvl");
@@ -154,7 +154,7 @@ public class LegacyEnchantmentRewriter {
                 }
             }
 
-            Tag hideFlags = tag.remove(nbtTagName + "|oldHideFlags");
+            Tag hideFlags = tag.remove(backupTagKeys.key("oldHideFlags"));
             if (hideFlags instanceof IntTag intTag) {
                 tag.putInt("HideFlags", intTag.asByte());
             } else {
@@ -165,7 +165,7 @@ public class LegacyEnchantmentRewriter {
         CompoundTag display = tag.getCompoundTag("display");
         // A few null checks just to be safe, though they shouldn't actually be
         ListTag<StringTag> lore = display != null ? display.getListTag("Lore", StringTag.class) : null;
-        ListTag<CompoundTag> remappedEnchantments = (ListTag<CompoundTag>) tag.remove(nbtTagName + "|" + key);
+        ListTag<CompoundTag> remappedEnchantments = (ListTag<CompoundTag>) tag.remove(backupTagKeys.key(key));
         for (CompoundTag enchantment : remappedEnchantments.copy()) {
             enchantments.add(enchantment);
             if (lore != null && !lore.isEmpty()) {
@@ -22,7 +22,6 @@ import com.viaversion.nbt.tag.CompoundTag;
 import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.NumberTag;
 import com.viaversion.nbt.tag.Tag;
-import com.viaversion.viabackwards.api.data.BackwardsMappingData;
 import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.api.data.Mappings;
 import com.viaversion.viaversion.api.minecraft.data.StructuredData;
@@ -43,27 +42,40 @@ import static com.viaversion.viabackwards.api.rewriters.EnchantmentRewriter.ENCH
 public class StructuredEnchantmentRewriter {
 
     protected final BackwardsStructuredItemRewriter<?, ?, ?> itemRewriter;
+    private final EnchantmentDescriptionCache<Integer, Tag> descriptions = new EnchantmentDescriptionCache<>(this::createEnchantmentDescription);
+    private final IdRewriteFunction idRewriteFunction = this::mappedEnchantmentId;
+    private final DescriptionSupplier descriptionSupplier = this::enchantmentDescription;
+    private final String showEnchantmentsTagName;
+    private final String showStoredEnchantmentsTagName;
     private boolean rewriteIds = true;
 
     public StructuredEnchantmentRewriter(final BackwardsStructuredItemRewriter<?, ?, ?> itemRewriter) {
         this.itemRewriter = itemRewriter;
+        this.showEnchantmentsTagName = itemRewriter.nbtTagName("show_" + StructuredDataKey.ENCHANTMENTS.identifier());
+        this.showStoredEnchantmentsTagName = itemRewriter.nbtTagName("show_" + StructuredDataKey.STORED_ENCHANTMENTS.identifier());
     }
 
     public void handleToClient(final Item item) {
         final StructuredDataContainer data = item.dataContainer();
-        final BackwardsMappingData mappingData = itemRewriter.protocol().getMappingData();
-        final IdRewriteFunction idRewriteFunction = id -> {
-            final Mappings mappings = mappingData.getEnchantmentMappings();
-            return mappings.getNewId(id);
-        };
-        final DescriptionSupplier descriptionSupplier = (id, level) -> {
-            final String remappedName = mappingData.mappedEnchantmentName(id);
-            return ComponentUtil.jsonStringToTag(ChatUtil.legacyToJsonString("§7" + remappedName, ENCHANTMENT_LEVEL_TRANSLATION.formatted(level), true));
-        };
         rewriteEnchantmentsToClient(data, StructuredDataKey.ENCHANTMENTS, idRewriteFunction, descriptionSupplier, false);
         rewriteEnchantmentsToClient(data, StructuredDataKey.STORED_ENCHANTMENTS, idRewriteFunction, descriptionSupplier, true);
     }
 
+    private int mappedEnchantmentId(final int id) {
+        final Mappings mappings = itemRewriter.protocol().getMappingData().getEnchantmentMappings();
+        return mappings.getNewId(id);
+    }
+
+    private Tag enchantmentDescription(final int id, final int level) {
+        // Later rewriters may still modify the tag
+        return descriptions.get(id, level).copy();
+    }
+
+    private Tag createEnchantmentDescription(final int id, final int level) {
+        final String remappedName = itemRewriter.protocol().getMappingData().mappedEnchantmentName(id);
+        return ComponentUtil.jsonStringToTag(ChatUtil.legacyToJsonString("§7" + remappedName, ENCHANTMENT_LEVEL_TRANSLATION.formatted(level), true));
+    }
+
     public void handleToServer(final Item item) {
         final StructuredDataContainer data = item.dataContainer();
         final StructuredData<CompoundTag> customData = data.getNonEmpty(StructuredDataKey.CUSTOM_DATA);
@@ -151,7 +163,7 @@ public class StructuredEnchantmentRewriter {
         }
 
         if (enchantments.showInTooltip()) {
-            tag.putBoolean(itemRewriter.nbtTagName("show_" + key.identifier()), true);
+            tag.putBoolean(showTagName(key), true);
         }
 
         data.set(StructuredDataKey.LORE, loreToAdd.toArray(new Tag[0]));
@@ -188,13 +200,22 @@ public class StructuredEnchantmentRewriter {
             data.remove(StructuredDataKey.LORE);
         }
 
-        final Enchantments enchantments = new Enchantments(tag.remove(itemRewriter.nbtTagName("show_" + key.identifier())) != null);
+        final Enchantments enchantments = new Enchantments(tag.remove(showTagName(key)) != null);
         for (final CompoundTag enchantment : enchantmentsTag) {
             enchantments.add(enchantment.getInt("id"), enchantment.getInt("lvl"));
         }
         data.set(key, enchantments);
     }
 
+    private String showTagName(final StructuredDataKey<Enchantments> key) {
+        if (key == StructuredDataKey.ENCHANTMENTS) {
+            return showEnchantmentsTagName;
+        } else if (key == StructuredDataKey.STORED_ENCHANTMENTS) {
+            return showStoredEnchantmentsTagName;
+        }
+        return itemRewriter.nbtTagName("show_" + key.identifier());
+    }
+
     public void setRewriteIds(final boolean rewriteIds) {
         this.rewriteIds = rewriteIds;
     }
@@ -26,20 +26,105 @@ import com.viaversion.viaversion.api.protocol.packet.ClientboundPacketType;
 import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.libs.gson.JsonObject;
 import com.viaversion.viaversion.rewriter.ComponentRewriter;
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.util.Collections;
 import java.util.HashMap;
 import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.logging.Level;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public class TranslatableRewriter<C extends ClientboundPacketType> extends ComponentRewriter<C> {
 
-    private static final Map<String, Map<String, String>> TRANSLATABLES = new HashMap<>();
-    private final Map<String, String> translatables;
+    private static final String MAPPINGS_FILE = "translation-mappings.json";
+    private static final String COMPACT_MAPPINGS_FILE = "assets/viabackwards/data/translation-mappings.bin";
+    private static final Map<String, Map<String, String>> TRANSLATABLES = new ConcurrentHashMap<>();
+    private static final Map<String, CompactSection> COMPACT_SECTIONS = new HashMap<>();
+    private final String version;
+    private volatile Map<String, String> translatables;
 
+    /**
+     * Loads the translation mappings. Unless overridden by a json file in the data folder, only the index of the
+     * compact mappings generated at build time is read here. Each version section is then loaded together with the
+     * mapping data of the protocols using it.
+     */
     public static void loadTranslatables() {
-        if (!TRANSLATABLES.isEmpty()) {
+        if (!TRANSLATABLES.isEmpty() || !COMPACT_SECTIONS.isEmpty()) {
             throw new IllegalStateException("Translatables already loaded!");
         }
-        fillTranslatables(BackwardsMappingDataLoader.INSTANCE.loadFromDataDir("translation-mappings.json"), TRANSLATABLES);
+
+        final File file = new File(BackwardsMappingDataLoader.INSTANCE.getDataFolder(), MAPPINGS_FILE);
+        if (file.exists()) {
+            final JsonObject mappings = BackwardsMappingDataLoader.INSTANCE.loadFromDataDir(MAPPINGS_FILE);
+            if (mappings != null) {
+                fillTranslatables(mappings, TRANSLATABLES);
+                return;
+            }
+        }
+
+        // Only the compact mappings are shipped
+        if (!loadCompactIndex()) {
+            BackwardsMappingDataLoader.INSTANCE.getLogger().warning("Missing translation mappings");
+        }
+    }
+
+    private static boolean loadCompactIndex() {
+        try (final DataInputStream in = openCompactMappings()) {
+            if (in == null) {
+                return false;
+            }
+
+            in.readByte(); // Format version
+            final int sections = in.readInt();
+            long offset = 0; // Relative to the end of the index
+            for (int i = 0; i < sections; i++) {
+                final String name = in.readUTF();
+                final int size = in.readInt();
+                COMPACT_SECTIONS.put(name, new CompactSection(offset, size));
+                offset += in.readInt();
+            }
+            return true;
+        } catch (final IOException e) {
+            BackwardsMappingDataLoader.INSTANCE.getLogger().log(Level.WARNING, "Failed to read compact translation mappings", e);
+            COMPACT_SECTIONS.clear();
+            return false;
+        }
+    }
+
+    private static Map<String, String> loadCompactSection(final String sectionIdentifier) {
+        final CompactSection section = COMPACT_SECTIONS.get(sectionIdentifier);
+        try (final DataInputStream in = openCompactMappings()) {
+            if (in == null) {
+                throw new IOException("Missing " + COMPACT_MAPPINGS_FILE);
+            }
+
+            // Skip the index
+            in.readByte();
+            final int sections = in.readInt();
+            for (int i = 0; i < sections; i++) {
+                in.readUTF();
+                in.readInt();
+                in.readInt();
+            }
+
+            in.skipNBytes(section.offset());
+            final Map<String, String> mappings = new HashMap<>(Math.max(16, (int) (section.size() / 0.75F) + 1));
+            for (int i = 0; i < section.size(); i++) {
+                mappings.put(in.readUTF(), in.readUTF());
+            }
+            return mappings;
+        } catch (final IOException e) {
+            throw new RuntimeException("Failed to load " + sectionIdentifier + " translation mappings", e);
+        }
+    }
+
+    private static @Nullable DataInputStream openCompactMappings() {
+        final InputStream stream = TranslatableRewriter.class.getClassLoader().getResourceAsStream(COMPACT_MAPPINGS_FILE);
+        return stream != null ? new DataInputStream(new BufferedInputStream(stream)) : null;
     }
 
     public static void fillTranslatables(final JsonObject jsonObject, final Map<String, Map<String, String>> translatables) {
@@ -58,12 +143,32 @@ public class TranslatableRewriter<C extends ClientboundPacketType> extends Compo
 
     public TranslatableRewriter(final BackwardsProtocol<C, ?, ?, ?> protocol, final ReadType type, final String version) {
         super(protocol, type);
-        final Map<String, String> translatableMappings = getTranslatableMappings(version);
-        if (translatableMappings == null) {
+        this.version = version;
+        if (!hasTranslatableMappings(version)) {
             protocol.getLogger().warning("Missing " + version + " translatables!");
-            this.translatables = new HashMap<>();
-        } else {
-            this.translatables = translatableMappings;
+            this.translatables = Collections.emptyMap();
+            return;
+        }
+
+        protocol.addTranslatableRewriter(this);
+    }
+
+    /**
+     * Loads the translation mappings of this rewriter's version if not loaded yet. Called by the protocol together with its
+     * mapping data, so that the section is read off the netty threads and connections using the protocol wait for it.
+     *
+     * @see BackwardsProtocol#addTranslatableRewriter(TranslatableRewriter)
+     */
+    public void loadTranslatableMappings() {
+        if (translatables != null) {
+            return;
+        }
+
+        try {
+            this.translatables = getTranslatableMappings(version);
+        } catch (final RuntimeException e) {
+            // Retried on first use
+            protocol.getLogger().log(Level.WARNING, "Failed to load " + version + " translatables", e);
         }
     }
 
@@ -84,10 +189,26 @@ public class TranslatableRewriter<C extends ClientboundPacketType> extends Compo
     }
 
     public @Nullable String mappedTranslationKey(final String translationKey) {
+        Map<String, String> translatables = this.translatables;
+        if (translatables == null) {
+            // Only if preloading failed
+            this.translatables = translatables = getTranslatableMappings(version);
+        }
         return translatables.get(translationKey);
     }
 
+    public static boolean hasTranslatableMappings(final String sectionIdentifier) {
+        return TRANSLATABLES.containsKey(sectionIdentifier) || COMPACT_SECTIONS.containsKey(sectionIdentifier);
+    }
+
     public static Map<String, String> getTranslatableMappings(final String sectionIdentifier) {
-        return TRANSLATABLES.get(sectionIdentifier);
+        final Map<String, String> mappings = TRANSLATABLES.get(sectionIdentifier);
+        if (mappings != null || !COMPACT_SECTIONS.containsKey(sectionIdentifier)) {
+            return mappings;
+        }
+        return TRANSLATABLES.computeIfAbsent(sectionIdentifier, TranslatableRewriter::loadCompactSection);
+    }
+
+    private record CompactSection(long offset, int size) {
     }
 }
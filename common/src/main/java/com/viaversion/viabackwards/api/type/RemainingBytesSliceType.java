@@ -0,0 +1,42 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.type;
+
+import com.viaversion.viaversion.api.type.Type;
+import io.netty.buffer.ByteBuf;
+
+/**
+ * Reads all remaining bytes as a retained slice of the input buffer instead of copying them, which has to be released
+ * by the caller.
+ */
+public final class RemainingBytesSliceType extends Type<ByteBuf> {
+
+    public RemainingBytesSliceType() {
+        super("Remaining Bytes Slice", ByteBuf.class);
+    }
+
+    @Override
+    public ByteBuf read(final ByteBuf buffer) {
+        return buffer.readSlice(buffer.readableBytes()).retain();
+    }
+
+    @Override
+    public void write(final ByteBuf buffer, final ByteBuf value) {
+        buffer.writeBytes(value, value.readerIndex(), value.readableBytes());
+    }
+}
@@ -0,0 +1,47 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+/**
+ * Snapshot of the usage of a single cache.
+ *
+ * @param name    name of the cache
+ * @param entries number of stored entries
+ * @param bytes   approximate size of the stored entries in bytes, or -1 if not tracked
+ * @param hits    number of lookups answered from the cache, or -1 if not tracked
+ * @param misses  number of lookups not answered from the cache, or -1 if not tracked
+ */
+public record CacheMetric(String name, long entries, long bytes, long hits, long misses) {
+
+    public double hitRate() {
+        final long lookups = hits + misses;
+        return hits != -1 && lookups != 0 ? (double) hits / lookups : 0;
+    }
+
+    public String format() {
+        final StringBuilder builder = new StringBuilder(name).append(": ").append(entries).append(" entries");
+        if (bytes != -1) {
+            builder.append(", ").append(bytes / 1024).append(" KiB");
+        }
+        if (hits != -1) {
+            builder.append(", ").append(hits).append(" hits, ").append(misses).append(" misses (")
+                .append(Math.round(hitRate() * 100)).append("%)");
+        }
+        return builder.toString();
+    }
+}
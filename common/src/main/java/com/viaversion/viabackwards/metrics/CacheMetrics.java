@@ -0,0 +1,69 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viabackwards.api.rewriters.ChunkTranslationCache;
+import com.viaversion.viabackwards.protocol.v1_14to1_13_2.storage.ChunkLightStorage;
+import com.viaversion.viabackwards.utils.TextConversionCache;
+import com.viaversion.viaversion.api.Via;
+import com.viaversion.viaversion.api.connection.UserConnection;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Collects the usage of the optional caches and the light storage of 1.13 clients, so that it can be checked whether
+ * they pay off. Per connection values are read without synchronization and are only approximate.
+ */
+public final class CacheMetrics {
+
+    private CacheMetrics() {
+    }
+
+    /**
+     * Returns a snapshot of all enabled caches.
+     *
+     * @return snapshot of all enabled caches
+     */
+    public static List<CacheMetric> snapshot() {
+        final List<CacheMetric> metrics = new ArrayList<>();
+        final ChunkTranslationCache chunkTranslationCache = ViaBackwards.getChunkTranslationCache();
+        if (chunkTranslationCache != null) {
+            metrics.add(new CacheMetric("chunk-translation", chunkTranslationCache.size(), chunkTranslationCache.bytes(), chunkTranslationCache.hits(), chunkTranslationCache.misses()));
+        }
+
+        final TextConversionCache textConversionCache = ViaBackwards.getTextConversionCache();
+        if (textConversionCache != null) {
+            metrics.add(new CacheMetric("text-conversion", textConversionCache.size(), -1, textConversionCache.hits(), textConversionCache.misses()));
+        }
+
+        long lightChunks = 0;
+        long lightBytes = 0;
+        for (final UserConnection connection : Via.getManager().getConnectionManager().getConnections()) {
+            final ChunkLightStorage lightStorage = connection.get(ChunkLightStorage.class);
+            if (lightStorage != null) {
+                lightChunks += lightStorage.size();
+                lightBytes += lightStorage.allocatedBytes();
+            }
+        }
+        if (lightChunks != 0) {
+            metrics.add(new CacheMetric("1.13-chunk-light", lightChunks, lightBytes, -1, -1));
+        }
+        return metrics;
+    }
+}
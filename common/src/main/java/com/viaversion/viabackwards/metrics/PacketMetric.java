@@ -0,0 +1,45 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.State;
+
+/**
+ * Snapshot of the metrics of a single packet type in a single protocol.
+ *
+ * @param protocol       simple name of the protocol class
+ * @param direction      direction of the packet
+ * @param state          state of the packet
+ * @param packet         name of the unmapped packet type, or its hex id if unknown
+ * @param calls          number of handled packets
+ * @param sampledCalls   number of handled packets that were measured
+ * @param nanos          measured time in nanoseconds, extrapolated to all calls
+ * @param allocatedBytes measured allocated bytes, extrapolated to all calls, or -1 if not tracked
+ */
+public record PacketMetric(String protocol, Direction direction, State state, String packet,
+                           long calls, long sampledCalls, long nanos, long allocatedBytes) {
+
+    public String key() {
+        return protocol + " " + direction + " " + state + " " + packet;
+    }
+
+    public long nanosPerCall() {
+        return calls != 0 ? nanos / calls : 0;
+    }
+}
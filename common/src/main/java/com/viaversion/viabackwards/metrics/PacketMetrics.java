@@ -0,0 +1,123 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Call counts, time spent and allocated bytes per protocol and packet type.
+ * <p>
+ * Every handled packet is counted while enabled, but only one in {@link #sampleRate()} packets is timed,
+ * the totals are extrapolated from those samples.
+ */
+public final class PacketMetrics {
+
+    private final Map<Class<?>, ProtocolPacketMetrics> protocols = new ConcurrentHashMap<>();
+    private final com.sun.management.ThreadMXBean threadBean;
+    private volatile int sampleRate;
+    private volatile boolean trackAllocations;
+
+    public PacketMetrics(final int sampleRate, final boolean trackAllocations) {
+        final ThreadMXBean threadBean = ManagementFactory.getThreadMXBean();
+        this.threadBean = threadBean instanceof com.sun.management.ThreadMXBean sunThreadBean && sunThreadBean.isThreadAllocatedMemorySupported() ? sunThreadBean : null;
+        setSampleRate(sampleRate);
+        setTrackAllocations(trackAllocations);
+    }
+
+    public ProtocolPacketMetrics protocol(final Protocol<?, ?, ?, ?> protocol) {
+        return protocols.computeIfAbsent(protocol.getClass(), $ -> new ProtocolPacketMetrics(protocol));
+    }
+
+    public boolean enabled() {
+        return sampleRate != 0;
+    }
+
+    /**
+     * Returns whether the current packet should be measured.
+     *
+     * @return true if the current packet should be measured
+     */
+    public boolean sample() {
+        final int sampleRate = this.sampleRate;
+        return sampleRate == 1 || ThreadLocalRandom.current().nextInt(sampleRate) == 0;
+    }
+
+    /**
+     * Returns the total bytes allocated by the current thread, or -1 if not tracked.
+     *
+     * @return total bytes allocated by the current thread, or -1
+     */
+    public long allocatedBytes() {
+        return trackAllocations ? threadBean.getCurrentThreadAllocatedBytes() : -1;
+    }
+
+    /**
+     * Returns a snapshot of all tracked packets, sorted by time spent in descending order.
+     *
+     * @return snapshot of all tracked packets
+     */
+    public List<PacketMetric> snapshot() {
+        final List<PacketMetric> metrics = new ArrayList<>();
+        for (final ProtocolPacketMetrics protocol : protocols.values()) {
+            protocol.snapshot(metrics);
+        }
+        metrics.sort(Comparator.comparingLong(PacketMetric::nanos).reversed());
+        return metrics;
+    }
+
+    public void reset() {
+        for (final ProtocolPacketMetrics protocol : protocols.values()) {
+            protocol.reset();
+        }
+    }
+
+    public int sampleRate() {
+        return sampleRate;
+    }
+
+    /**
+     * Sets how many packets are handled per measured packet. 0 disables metrics, 1 measures every packet.
+     *
+     * @param sampleRate sample rate
+     */
+    public void setSampleRate(final int sampleRate) {
+        if (sampleRate < 0) {
+            throw new IllegalArgumentException("Sample rate cannot be negative");
+        }
+        this.sampleRate = sampleRate;
+    }
+
+    public boolean trackAllocations() {
+        return trackAllocations;
+    }
+
+    public void setTrackAllocations(final boolean trackAllocations) {
+        if (trackAllocations && threadBean != null && !threadBean.isThreadAllocatedMemoryEnabled()) {
+            threadBean.setThreadAllocatedMemoryEnabled(true);
+        }
+        this.trackAllocations = trackAllocations && threadBean != null;
+    }
+}
@@ -0,0 +1,106 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.function.ToLongFunction;
+
+public final class PacketMetricsBean implements PacketMetricsMXBean {
+
+    public static final String OBJECT_NAME = "com.viaversion.viabackwards:type=PacketMetrics";
+    private final PacketMetrics metrics;
+
+    public PacketMetricsBean(final PacketMetrics metrics) {
+        this.metrics = metrics;
+    }
+
+    @Override
+    public int getSampleRate() {
+        return metrics.sampleRate();
+    }
+
+    @Override
+    public void setSampleRate(final int sampleRate) {
+        metrics.setSampleRate(sampleRate);
+    }
+
+    @Override
+    public boolean isTrackAllocations() {
+        return metrics.trackAllocations();
+    }
+
+    @Override
+    public void setTrackAllocations(final boolean trackAllocations) {
+        metrics.setTrackAllocations(trackAllocations);
+    }
+
+    @Override
+    public Map<String, Long> getCalls() {
+        return collect(PacketMetric::calls);
+    }
+
+    @Override
+    public Map<String, Long> getNanos() {
+        return collect(PacketMetric::nanos);
+    }
+
+    @Override
+    public Map<String, Long> getAllocatedBytes() {
+        return collect(PacketMetric::allocatedBytes);
+    }
+
+    @Override
+    public String[] getReport() {
+        final List<PacketMetric> snapshot = metrics.snapshot();
+        final String[] report = new String[snapshot.size()];
+        for (int i = 0; i < report.length; i++) {
+            report[i] = format(snapshot.get(i));
+        }
+        return report;
+    }
+
+    @Override
+    public String[] getCacheReport() {
+        final List<CacheMetric> snapshot = CacheMetrics.snapshot();
+        final String[] report = new String[snapshot.size()];
+        for (int i = 0; i < report.length; i++) {
+            report[i] = snapshot.get(i).format();
+        }
+        return report;
+    }
+
+    @Override
+    public void reset() {
+        metrics.reset();
+    }
+
+    public static String format(final PacketMetric metric) {
+        final String allocated = metric.allocatedBytes() != -1 ? ", " + (metric.allocatedBytes() / metric.calls()) + " B/call" : "";
+        return metric.key() + ": " + metric.calls() + " calls, " + (metric.nanos() / 1_000_000) + " ms, " + metric.nanosPerCall() + " ns/call" + allocated;
+    }
+
+    private Map<String, Long> collect(final ToLongFunction<PacketMetric> function) {
+        final Map<String, Long> values = new LinkedHashMap<>();
+        for (final PacketMetric metric : metrics.snapshot()) {
+            values.put(metric.key(), function.applyAsLong(metric));
+        }
+        return values;
+    }
+}
@@ -0,0 +1,57 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import java.util.Map;
+
+/**
+ * JMX view on {@link PacketMetrics}, registered as {@value PacketMetricsBean#OBJECT_NAME}.
+ * Keys are made up of protocol, direction, state and packet type, see {@link PacketMetric#key()}.
+ */
+public interface PacketMetricsMXBean {
+
+    int getSampleRate();
+
+    void setSampleRate(int sampleRate);
+
+    boolean isTrackAllocations();
+
+    void setTrackAllocations(boolean trackAllocations);
+
+    Map<String, Long> getCalls();
+
+    Map<String, Long> getNanos();
+
+    Map<String, Long> getAllocatedBytes();
+
+    /**
+     * Returns a human readable line per packet type, sorted by time spent.
+     *
+     * @return report lines
+     */
+    String[] getReport();
+
+    /**
+     * Returns a human readable line per enabled cache with its size, hits and misses.
+     *
+     * @return cache report lines
+     */
+    String[] getCacheReport();
+
+    void reset();
+}
@@ -0,0 +1,92 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viaversion.api.command.ViaCommandSender;
+import com.viaversion.viaversion.api.command.ViaSubCommand;
+import java.util.List;
+
+/**
+ * {@code /viaversion vbmetrics [reset|sample <rate>|caches]}, prints the most expensive packets or the usage of the caches.
+ */
+public final class PacketMetricsSubCommand extends ViaSubCommand {
+
+    private static final int MAX_LINES = 15;
+
+    @Override
+    public String name() {
+        return "vbmetrics";
+    }
+
+    @Override
+    public String description() {
+        return "Shows the most expensive packets handled by ViaBackwards and the usage of its caches";
+    }
+
+    @Override
+    public String usage() {
+        return "vbmetrics [reset|sample <rate>|caches]";
+    }
+
+    @Override
+    public boolean execute(final ViaCommandSender sender, final String[] args) {
+        final PacketMetrics metrics = ViaBackwards.getPacketMetrics();
+        if (args.length == 1 && args[0].equalsIgnoreCase("reset")) {
+            metrics.reset();
+            sendMessage(sender, "&6Packet metrics have been reset");
+            return true;
+        }
+
+        if (args.length == 1 && args[0].equalsIgnoreCase("caches")) {
+            final List<CacheMetric> caches = CacheMetrics.snapshot();
+            if (caches.isEmpty()) {
+                sendMessage(sender, "&cNo caches are enabled in the ViaBackwards config");
+                return true;
+            }
+
+            sendMessage(sender, "&6Cache usage:");
+            for (final CacheMetric cache : caches) {
+                sendMessage(sender, "&e" + cache.format());
+            }
+            return true;
+        }
+
+        if (args.length == 2 && args[0].equalsIgnoreCase("sample")) {
+            try {
+                metrics.setSampleRate(Integer.parseInt(args[1]));
+            } catch (final IllegalArgumentException e) {
+                return false;
+            }
+            sendMessage(sender, "&6Packet metrics sample rate set to &e%s", metrics.sampleRate());
+            return true;
+        }
+
+        if (!metrics.enabled()) {
+            sendMessage(sender, "&cPacket metrics are disabled, enable them in the ViaBackwards config or with /viaversion vbmetrics sample <rate>");
+            return true;
+        }
+
+        final List<PacketMetric> snapshot = metrics.snapshot();
+        sendMessage(sender, "&6Most expensive packets (1 in %s sampled):", metrics.sampleRate());
+        for (int i = 0; i < Math.min(MAX_LINES, snapshot.size()); i++) {
+            sendMessage(sender, "&e" + PacketMetricsBean.format(snapshot.get(i)));
+        }
+        return true;
+    }
+}
@@ -0,0 +1,137 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.metrics;
+
+import com.viaversion.viaversion.api.protocol.Protocol;
+import com.viaversion.viaversion.api.protocol.packet.Direction;
+import com.viaversion.viaversion.api.protocol.packet.PacketType;
+import com.viaversion.viaversion.api.protocol.packet.State;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypeMap;
+import com.viaversion.viaversion.api.protocol.packet.provider.PacketTypesProvider;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Packet counters of a single protocol, indexed by direction, state and unmapped packet id.
+ */
+public final class ProtocolPacketMetrics {
+
+    private static final int MAX_PACKET_ID = 256;
+    private static final State[] STATES = State.values();
+    private final AtomicReferenceArray<PacketCounter> counters = new AtomicReferenceArray<>(2 * STATES.length * MAX_PACKET_ID);
+    private final Protocol<?, ?, ?, ?> protocol;
+
+    ProtocolPacketMetrics(final Protocol<?, ?, ?, ?> protocol) {
+        this.protocol = protocol;
+    }
+
+    /**
+     * Returns the counter for the given packet, or null if the packet id is out of the tracked range.
+     *
+     * @param direction direction of the packet
+     * @param state     state of the packet
+     * @param id        unmapped packet id
+     * @return packet counter or null
+     */
+    public @Nullable PacketCounter counter(final Direction direction, final State state, final int id) {
+        if (id < 0 || id >= MAX_PACKET_ID) {
+            return null;
+        }
+
+        final int index = ((direction == Direction.CLIENTBOUND ? 0 : STATES.length) + state.ordinal()) * MAX_PACKET_ID + id;
+        final PacketCounter counter = counters.get(index);
+        if (counter != null) {
+            return counter;
+        }
+
+        counters.compareAndSet(index, null, new PacketCounter());
+        return counters.get(index);
+    }
+
+    void snapshot(final List<PacketMetric> metrics) {
+        final String protocolName = protocol.getClass().getSimpleName();
+        for (int index = 0; index < counters.length(); index++) {
+            final PacketCounter counter = counters.get(index);
+            if (counter == null) {
+                continue;
+            }
+
+            final long calls = counter.calls.sum();
+            if (calls == 0) {
+                continue;
+            }
+
+            final int id = index % MAX_PACKET_ID;
+            final int stateIndex = index / MAX_PACKET_ID;
+            final Direction direction = stateIndex < STATES.length ? Direction.CLIENTBOUND : Direction.SERVERBOUND;
+            final State state = STATES[stateIndex % STATES.length];
+
+            // Extrapolate sampled values to all calls
+            final long sampledCalls = counter.sampledCalls.sum();
+            final long nanos = sampledCalls != 0 ? (long) (counter.nanos.sum() * ((double) calls / sampledCalls)) : 0;
+            final long allocatedSamples = counter.allocationSamples.sum();
+            final long allocatedBytes = allocatedSamples != 0 ? (long) (counter.allocatedBytes.sum() * ((double) calls / allocatedSamples)) : -1;
+            metrics.add(new PacketMetric(protocolName, direction, state, packetName(direction, state, id), calls, sampledCalls, nanos, allocatedBytes));
+        }
+    }
+
+    void reset() {
+        for (int i = 0; i < counters.length(); i++) {
+            counters.set(i, null);
+        }
+    }
+
+    private String packetName(final Direction direction, final State state, final int id) {
+        final PacketTypesProvider<?, ?, ?, ?> provider = protocol.getPacketTypesProvider();
+        final PacketTypeMap<?> types = direction == Direction.CLIENTBOUND
+            ? provider.unmappedClientboundPacketTypes().get(state)
+            : provider.unmappedServerboundPacketTypes().get(state);
+        final PacketType type = types != null ? types.typeById(id) : null;
+        return type != null ? type.getClass().getSimpleName() + "." + type.getName() : "0x" + Integer.toHexString(id);
+    }
+
+    public static final class PacketCounter {
+        private final LongAdder calls = new LongAdder();
+        private final LongAdder sampledCalls = new LongAdder();
+        private final LongAdder nanos = new LongAdder();
+        private final LongAdder allocationSamples = new LongAdder();
+        private final LongAdder allocatedBytes = new LongAdder();
+
+        public void count() {
+            calls.increment();
+        }
+
+        /**
+         * Counts a measured call.
+         *
+         * @param nanos          time spent in the protocol
+         * @param allocatedBytes bytes allocated by the current thread in the meantime, or -1 if not tracked
+         */
+        public void record(final long nanos, final long allocatedBytes) {
+            calls.increment();
+            sampledCalls.increment();
+            this.nanos.add(nanos);
+            if (allocatedBytes >= 0) {
+                allocationSamples.increment();
+                this.allocatedBytes.add(allocatedBytes);
+            }
+        }
+    }
+}
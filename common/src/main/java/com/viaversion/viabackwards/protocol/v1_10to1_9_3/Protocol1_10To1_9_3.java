@@ -94,6 +94,7 @@ public class Protocol1_10To1_9_3 extends BackwardsProtocol<ClientboundPackets1_9
 
         TranslatableRewriter<ClientboundPackets1_9_3> componentRewriter = new TranslatableRewriter<>(this, ComponentRewriter.ReadType.JSON);
         componentRewriter.registerComponentPacket(ClientboundPackets1_9_3.CHAT);
+        loadTranslatableMappingsAsync();
     }
 
     @Override
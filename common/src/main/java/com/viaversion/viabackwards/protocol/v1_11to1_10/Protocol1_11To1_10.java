@@ -58,6 +58,7 @@ public class Protocol1_11To1_10 extends BackwardsProtocol<ClientboundPackets1_9_
 
         componentRewriter = new TranslatableRewriter<>(this, ComponentRewriter.ReadType.JSON);
         componentRewriter.registerComponentPacket(ClientboundPackets1_9_3.CHAT);
+        loadTranslatableMappingsAsync();
     }
 
     @Override
@@ -67,6 +67,7 @@ public class Protocol1_12To1_11_1 extends BackwardsProtocol<ClientboundPackets1_
         cancelClientbound(ClientboundPackets1_12.UPDATE_ADVANCEMENTS);
         cancelClientbound(ClientboundPackets1_12.RECIPE);
         cancelClientbound(ClientboundPackets1_12.SELECT_ADVANCEMENTS_TAB);
+        loadTranslatableMappingsAsync();
     }
 
     @Override
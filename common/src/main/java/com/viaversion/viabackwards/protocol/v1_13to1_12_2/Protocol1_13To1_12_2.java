@@ -85,6 +85,7 @@ public class Protocol1_13To1_12_2 extends BackwardsProtocol<ClientboundPackets1_
             MAPPINGS.load();
             PaintingNames1_13.init();
             Via.getManager().getProviders().register(BackwardsBlockEntityProvider.class, new BackwardsBlockEntityProvider());
+            loadTranslatableMappings();
         });
 
         translatableRewriter.registerPing();
@@ -76,8 +76,8 @@ public class BackwardsBlockEntityProvider implements Provider {
         }
 
         BackwardsBlockStorage storage = user.get(BackwardsBlockStorage.class);
-        Integer blockId = storage.get(position);
-        if (blockId == null) {
+        int blockId = storage.get(position);
+        if (blockId == -1) {
             return tag;
         }
 
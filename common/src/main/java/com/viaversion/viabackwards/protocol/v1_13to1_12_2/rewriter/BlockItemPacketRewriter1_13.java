@@ -27,6 +27,7 @@ import com.viaversion.viabackwards.protocol.v1_13to1_12_2.block_entity_handlers.
 import com.viaversion.viabackwards.protocol.v1_13to1_12_2.provider.BackwardsBlockEntityProvider;
 import com.viaversion.viabackwards.protocol.v1_13to1_12_2.storage.BackwardsBlockStorage;
 import com.viaversion.viabackwards.protocol.v1_13to1_12_2.storage.NoteBlockStorage;
+import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.BlockChangeRecord;
@@ -55,7 +56,6 @@ import com.viaversion.viaversion.protocols.v1_12to1_12_1.packet.ClientboundPacke
 import com.viaversion.viaversion.protocols.v1_12to1_12_1.packet.ServerboundPackets1_12_1;
 import com.viaversion.viaversion.protocols.v1_12_2to1_13.Protocol1_12_2To1_13;
 import com.viaversion.viaversion.protocols.v1_12_2to1_13.data.BlockIdData;
-import com.viaversion.viaversion.util.ComponentUtil;
 import com.viaversion.viaversion.util.IdAndData;
 import com.viaversion.viaversion.util.Key;
 import com.viaversion.viaversion.util.Pair;
@@ -68,9 +68,24 @@ import java.util.Optional;
 
 public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<ClientboundPackets1_13, ServerboundPackets1_12_1, Protocol1_13To1_12_2> {
 
+    private static final int[] BIOMES = new int[51]; // 1.13 biome id -> 1.12 biome id, ids past the end are unchanged
+    private static final int FIRST_NEW_BIOME = 40; // Ids below already exist in 1.12
+
     private final Map<String, String> enchantmentMappings = new HashMap<>();
     private final String extraNbtTag;
 
+    static {
+        for (int i = 0; i < BIOMES.length; i++) {
+            BIOMES[i] = switch (i) {
+                case 40, 41, 42, 43 -> 9; // end biomes
+                case 47, 48, 49 -> 24; // deep ocean biomes
+                case 50 -> 10; // deep frozen... let's just pick the frozen variant
+                case 44, 45, 46 -> 0; // the other new ocean biomes
+                default -> i;
+            };
+        }
+    }
+
     public BlockItemPacketRewriter1_13(Protocol1_13To1_12_2 protocol) {
         super(protocol, Types.ITEM1_13, Types.ITEM1_13_SHORT_ARRAY, Types.ITEM1_8, Types.ITEM1_8_SHORT_ARRAY);
         extraNbtTag = nbtTagName("2");
@@ -181,16 +196,9 @@ public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<Clientbou
         });
 
         protocol.registerClientbound(ClientboundPackets1_13.FORGET_LEVEL_CHUNK, wrapper -> {
-            int chunkMinX = wrapper.passthrough(Types.INT) << 4;
-            int chunkMinZ = wrapper.passthrough(Types.INT) << 4;
-            int chunkMaxX = chunkMinX + 15;
-            int chunkMaxZ = chunkMinZ + 15;
-            BackwardsBlockStorage blockStorage = wrapper.user().get(BackwardsBlockStorage.class);
-            blockStorage.getBlocks().entrySet().removeIf(entry -> {
-                BlockPosition position = entry.getKey();
-                return position.x() >= chunkMinX && position.z() >= chunkMinZ
-                    && position.x() <= chunkMaxX && position.z() <= chunkMaxZ;
-            });
+            int chunkX = wrapper.passthrough(Types.INT);
+            int chunkZ = wrapper.passthrough(Types.INT);
+            wrapper.user().get(BackwardsBlockStorage.class).unloadChunk(chunkX, chunkZ);
         });
 
         // Block Change
@@ -325,26 +333,25 @@ public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<Clientbou
 
                 DataPalette palette = section.palette(PaletteType.BLOCKS);
                 // Flower pots require a special treatment, they are no longer block entities :(
-                for (int y = 0; y < 16; y++) {
-                    for (int z = 0; z < 16; z++) {
-                        for (int x = 0; x < 16; x++) {
-                            int block = palette.idAt(x, y, z);
-
-                            // Check if the block is a flower
-                            if (FlowerPotHandler.isFlowah(block)) {
-                                BlockPosition pos = new BlockPosition(
-                                    (x + (chunk.getX() << 4)),
-                                    (short) (y + (i << 4)),
-                                    (z + (chunk.getZ() << 4))
-                                );
-                                // Store block
-                                storage.checkAndStore(pos, block);
-
-                                CompoundTag nbt = provider.transform(wrapper.user(), pos, "minecraft:flower_pot");
-
-                                chunk.getBlockEntities().add(nbt);
-                            }
+                // Only scan the blocks of sections that have any in their palette
+                if (containsFlowerPot(palette)) {
+                    for (int index = 0; index < ChunkSection.SIZE; index++) {
+                        int block = palette.idAt(index);
+                        if (!FlowerPotHandler.isFlowah(block)) {
+                            continue;
                         }
+
+                        BlockPosition pos = new BlockPosition(
+                            (ChunkSection.xFromIndex(index) + (chunk.getX() << 4)),
+                            (short) (ChunkSection.yFromIndex(index) + (i << 4)),
+                            (ChunkSection.zFromIndex(index) + (chunk.getZ() << 4))
+                        );
+                        // Store block
+                        storage.checkAndStore(pos, block);
+
+                        CompoundTag nbt = provider.transform(wrapper.user(), pos, "minecraft:flower_pot");
+
+                        chunk.getBlockEntities().add(nbt);
                     }
                 }
 
@@ -356,18 +363,11 @@ public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<Clientbou
 
 
             if (chunk.isBiomeData()) {
+                int[] biomeData = chunk.getBiomeData();
                 for (int i = 0; i < 256; i++) {
-                    int biome = chunk.getBiomeData()[i];
-                    int newId = switch (biome) {
-                        case 40, 41, 42, 43 -> 9; // end biomes
-                        case 47, 48, 49 -> 24; // deep ocean biomes
-                        case 50 -> 10; // deep frozen... let's just pick the frozen variant
-                        case 44, 45, 46 -> 0; // the other new ocean biomes
-                        default -> -1;
-                    };
-
-                    if (newId != -1) {
-                        chunk.getBiomeData()[i] = newId;
+                    int biome = biomeData[i];
+                    if (biome >= FIRST_NEW_BIOME && biome < BIOMES.length) {
+                        biomeData[i] = BIOMES[biome];
                     }
                 }
             }
@@ -760,7 +760,7 @@ public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<Clientbou
                 StringTag name = display.getStringTag("Name");
                 if (name != null) {
                     Tag via = display.remove(extraNbtTag + "|Name");
-                    name.setValue(via instanceof StringTag ? ((StringTag) via).getValue() : ComponentUtil.legacyToJsonString(name.getValue()));
+                    name.setValue(via instanceof StringTag ? ((StringTag) via).getValue() : ChatUtil.legacyToJsonString(name.getValue()));
                 }
             }
 
@@ -963,6 +963,15 @@ public class BlockItemPacketRewriter1_13 extends BackwardsItemRewriter<Clientbou
         }
     }
 
+    private static boolean containsFlowerPot(DataPalette palette) {
+        for (int i = 0; i < palette.size(); i++) {
+            if (FlowerPotHandler.isFlowah(palette.idByIndex(i))) {
+                return true;
+            }
+        }
+        return false;
+    }
+
     // TODO find a less hacky way to do this (https://bugs.mojang.com/browse/MC-74231)
     private static void flowerPotSpecialTreatment(UserConnection user, int blockState, BlockPosition position) {
         if (FlowerPotHandler.isFlowah(blockState)) {
@@ -20,11 +20,12 @@ package com.viaversion.viabackwards.protocol.v1_13to1_12_2.storage;
 
 import com.viaversion.viaversion.api.connection.StorableObject;
 import com.viaversion.viaversion.api.minecraft.BlockPosition;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntMap;
+import com.viaversion.viaversion.libs.fastutil.ints.Int2IntOpenHashMap;
 import com.viaversion.viaversion.libs.fastutil.ints.IntOpenHashSet;
 import com.viaversion.viaversion.libs.fastutil.ints.IntSet;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import org.checkerframework.checker.nullness.qual.Nullable;
+import com.viaversion.viaversion.libs.fastutil.longs.Long2ObjectMap;
+import com.viaversion.viaversion.libs.fastutil.longs.Long2ObjectOpenHashMap;
 
 public class BackwardsBlockStorage implements StorableObject {
     // This BlockStorage is very exclusive (;
@@ -66,31 +67,70 @@ public class BackwardsBlockStorage implements StorableObject {
         }
     }
 
-    private final Map<BlockPosition, Integer> blocks = new ConcurrentHashMap<>();
+    // Chunk index -> packed position in the chunk -> block state
+    private final Long2ObjectMap<Int2IntMap> blocks = new Long2ObjectOpenHashMap<>();
 
     public void checkAndStore(BlockPosition position, int block) {
         if (!WHITELIST.contains(block)) {
             // Remove if not whitelisted
-            blocks.remove(position);
+            remove(position);
             return;
         }
 
-        blocks.put(position, block);
+        long chunkIndex = chunkIndex(position.x() >> 4, position.z() >> 4);
+        Int2IntMap chunkBlocks = blocks.get(chunkIndex);
+        if (chunkBlocks == null) {
+            chunkBlocks = new Int2IntOpenHashMap();
+            chunkBlocks.defaultReturnValue(-1);
+            blocks.put(chunkIndex, chunkBlocks);
+        }
+        chunkBlocks.put(positionIndex(position), block);
     }
 
-    public @Nullable Integer get(BlockPosition position) {
-        return blocks.get(position);
+    /**
+     * Returns the stored block state at the given position.
+     *
+     * @param position block position
+     * @return block state, or -1 if none is stored
+     */
+    public int get(BlockPosition position) {
+        Int2IntMap chunkBlocks = blocks.get(chunkIndex(position.x() >> 4, position.z() >> 4));
+        return chunkBlocks != null ? chunkBlocks.get(positionIndex(position)) : -1;
     }
 
+    /**
+     * Removes the stored block state at the given position.
+     *
+     * @param position block position
+     * @return removed block state, or -1 if none was stored
+     */
     public int remove(BlockPosition position) {
-        return blocks.remove(position);
+        long chunkIndex = chunkIndex(position.x() >> 4, position.z() >> 4);
+        Int2IntMap chunkBlocks = blocks.get(chunkIndex);
+        if (chunkBlocks == null) {
+            return -1;
+        }
+
+        int block = chunkBlocks.remove(positionIndex(position));
+        if (chunkBlocks.isEmpty()) {
+            blocks.remove(chunkIndex);
+        }
+        return block;
+    }
+
+    public void unloadChunk(int chunkX, int chunkZ) {
+        blocks.remove(chunkIndex(chunkX, chunkZ));
     }
 
     public void clear() {
         blocks.clear();
     }
 
-    public Map<BlockPosition, Integer> getBlocks() {
-        return blocks;
+    private static long chunkIndex(int chunkX, int chunkZ) {
+        return ((long) chunkX << 32) | (chunkZ & 0xFFFFFFFFL);
+    }
+
+    private static int positionIndex(BlockPosition position) {
+        return position.y() << 8 | (position.z() & 0xF) << 4 | (position.x() & 0xF);
     }
 }
@@ -23,6 +23,7 @@ import com.viaversion.viabackwards.api.rewriters.EnchantmentRewriter;
 import com.viaversion.viabackwards.api.rewriters.TranslatableRewriter;
 import com.viaversion.viabackwards.protocol.v1_14to1_13_2.Protocol1_14To1_13_2;
 import com.viaversion.viabackwards.protocol.v1_14to1_13_2.storage.ChunkLightStorage;
+import com.viaversion.viabackwards.utils.ChatUtil;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.ClientWorld;
@@ -32,6 +33,7 @@ import com.viaversion.viaversion.api.minecraft.chunks.ChunkSection;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionLight;
 import com.viaversion.viaversion.api.minecraft.chunks.ChunkSectionLightImpl;
 import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
+import com.viaversion.viaversion.api.minecraft.chunks.NibbleArray;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.minecraft.entities.EntityType;
 import com.viaversion.viaversion.api.minecraft.entities.EntityTypes1_14;
@@ -57,7 +59,6 @@ import com.viaversion.viaversion.protocols.v1_13_2to1_14.Protocol1_13_2To1_14;
 import com.viaversion.viaversion.protocols.v1_13_2to1_14.packet.ClientboundPackets1_14;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
 import com.viaversion.viaversion.rewriter.RecipeRewriter;
-import com.viaversion.viaversion.util.ComponentUtil;
 import com.viaversion.viaversion.util.Key;
 import com.viaversion.viaversion.util.SerializerVersion;
 import java.util.ArrayList;
@@ -143,7 +144,7 @@ public class BlockItemPacketRewriter1_14 extends BackwardsItemRewriter<Clientbou
                 if (title.isJsonObject() && (object = title.getAsJsonObject()).has("translate")) {
                     // Don't rewrite other 9x3 translatable containers
                     if (type != 2 || object.getAsJsonPrimitive("translate").getAsString().equals("container.barrel")) {
-                        title = ComponentUtil.legacyToJson(containerTitle);
+                        title = ChatUtil.legacyToJson(containerTitle);
                     }
                 }
             }
@@ -371,32 +372,24 @@ public class BlockItemPacketRewriter1_14 extends BackwardsItemRewriter<Clientbou
 
                 ChunkSectionLight sectionLight = new ChunkSectionLightImpl();
                 section.setLight(sectionLight);
-                if (chunkLight == null) {
-                    sectionLight.setBlockLight(ChunkLightStorage.FULL_LIGHT);
-                    if (clientWorld.getEnvironment() == Environment.NORMAL) {
-                        sectionLight.setSkyLight(ChunkLightStorage.FULL_LIGHT);
-                    }
-                } else {
-                    byte[] blockLight = chunkLight.blockLight()[i];
-                    sectionLight.setBlockLight(blockLight != null ? blockLight : ChunkLightStorage.FULL_LIGHT);
-                    if (clientWorld.getEnvironment() == Environment.NORMAL) {
-                        byte[] skyLight = chunkLight.skyLight()[i];
-                        sectionLight.setSkyLight(skyLight != null ? skyLight : ChunkLightStorage.FULL_LIGHT);
-                    }
+                boolean nonFullBlockLightFix = Via.getConfig().isNonFullBlockLightFix() && section.getNonAirBlocksCount() != 0;
+                byte[] blockLight = chunkLight != null ? chunkLight.blockLight()[i] : null;
+                if (blockLight == null) {
+                    blockLight = ChunkLightStorage.FULL_LIGHT;
+                }
+                if (blockLight == ChunkLightStorage.FULL_LIGHT && nonFullBlockLightFix) {
+                    // Don't modify the shared array
+                    blockLight = blockLight.clone();
+                }
+                sectionLight.setBlockLight(blockLight);
+                if (clientWorld.getEnvironment() == Environment.NORMAL) {
+                    byte[] skyLight = chunkLight != null ? chunkLight.skyLight()[i] : null;
+                    sectionLight.setSkyLight(skyLight != null ? skyLight : ChunkLightStorage.FULL_LIGHT);
                 }
 
                 DataPalette palette = section.palette(PaletteType.BLOCKS);
-                if (Via.getConfig().isNonFullBlockLightFix() && section.getNonAirBlocksCount() != 0 && sectionLight.hasBlockLight()) {
-                    for (int x = 0; x < 16; x++) {
-                        for (int y = 0; y < 16; y++) {
-                            for (int z = 0; z < 16; z++) {
-                                int id = palette.idAt(x, y, z);
-                                if (Protocol1_13_2To1_14.MAPPINGS.getNonFullBlocks().contains(id)) {
-                                    sectionLight.getBlockLightNibbleArray().set(x, y, z, 0);
-                                }
-                            }
-                        }
-                    }
+                if (nonFullBlockLightFix && sectionLight.hasBlockLight()) {
+                    removeNonFullBlockLight(palette, sectionLight.getBlockLightNibbleArray());
                 }
 
                 for (int j = 0; j < palette.size(); j++) {
@@ -506,7 +499,7 @@ public class BlockItemPacketRewriter1_14 extends BackwardsItemRewriter<Clientbou
             ListTag<StringTag> lore = display.getListTag("Lore", StringTag.class);
             if (lore != null && !hasBackupTag(display, "Lore")) {
                 for (StringTag loreEntry : lore) {
-                    loreEntry.setValue(ComponentUtil.legacyToJsonString(loreEntry.getValue()));
+                    loreEntry.setValue(ChatUtil.legacyToJsonString(loreEntry.getValue()));
                 }
             }
         }
@@ -517,4 +510,28 @@ public class BlockItemPacketRewriter1_14 extends BackwardsItemRewriter<Clientbou
         super.handleItemToServer(connection, item);
         return item;
     }
+
+    private static void removeNonFullBlockLight(DataPalette palette, NibbleArray blockLight) {
+        // Only go through the blocks if any palette entry is a non-full block
+        boolean[] nonFullBlocks = null;
+        for (int i = 0; i < palette.size(); i++) {
+            if (Protocol1_13_2To1_14.MAPPINGS.getNonFullBlocks().contains(palette.idByIndex(i))) {
+                if (nonFullBlocks == null) {
+                    nonFullBlocks = new boolean[palette.size()];
+                }
+                nonFullBlocks[i] = true;
+            }
+        }
+        if (nonFullBlocks == null) {
+            return;
+        }
+
+        byte[] handle = blockLight.getHandle();
+        for (int index = 0; index < ChunkSection.SIZE; index++) {
+            if (nonFullBlocks[palette.paletteIndexAt(index)]) {
+                // Even indices are stored in the lower nibble
+                handle[index >> 1] &= (byte) ((index & 1) == 0 ? 0xF0 : 0x0F);
+            }
+        }
+    }
 }
@@ -18,57 +18,175 @@
 package com.viaversion.viabackwards.protocol.v1_14to1_13_2.storage;
 
 import com.viaversion.viaversion.api.connection.StorableObject;
-import java.lang.reflect.Constructor;
-import java.lang.reflect.InvocationTargetException;
+import com.viaversion.viaversion.libs.fastutil.ints.IntArrayList;
+import com.viaversion.viaversion.libs.fastutil.ints.IntList;
+import com.viaversion.viaversion.libs.fastutil.longs.Long2ObjectMap;
+import com.viaversion.viaversion.libs.fastutil.longs.Long2ObjectOpenHashMap;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.HashMap;
-import java.util.Map;
+import java.util.List;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
+/**
+ * Stores the light of loaded chunks until their chunk data is sent.
+ * <p>
+ * Sections without any or with full light are only stored as markers, the others are copied into off-heap slabs
+ * of fixed size slots that are reused once their chunk is unloaded.
+ */
 public class ChunkLightStorage implements StorableObject {
     public static final byte[] FULL_LIGHT = new byte[2048];
     public static final byte[] EMPTY_LIGHT = new byte[2048];
-    private static Constructor<?> fastUtilLongObjectHashMap;
+    private static final int SECTION_LIGHT_LENGTH = 2048;
+    private static final int SLOTS_PER_SLAB = 32;
+    private static final int NO_LIGHT = -1;
+    private static final int EMPTY_LIGHT_SLOT = -2;
+    private static final int FULL_LIGHT_SLOT = -3;
 
-    private final Map<Long, ChunkLight> storedLight = createLongObjectMap();
+    private final Long2ObjectMap<int[]> storedLight = new Long2ObjectOpenHashMap<>(); // Chunk index -> 16 sky light and 16 block light slots
+    private final List<ByteBuffer> slabs = new ArrayList<>();
+    private final IntList freeSlots = new IntArrayList();
+    private int usedSlots;
 
     static {
         Arrays.fill(FULL_LIGHT, (byte) 0xFF);
         Arrays.fill(EMPTY_LIGHT, (byte) 0x0);
-        try {
-            fastUtilLongObjectHashMap = Class.forName("it.unimi.dsi.fastutil.longs.Long2ObjectOpenHashMap").getConstructor();
-        } catch (ClassNotFoundException | NoSuchMethodException ignored) {
-        }
     }
 
     public void setStoredLight(byte[][] skyLight, byte[][] blockLight, int x, int z) {
-        storedLight.put(getChunkSectionIndex(x, z), new ChunkLight(skyLight, blockLight));
+        int[] slots = new int[32];
+        for (int i = 0; i < 16; i++) {
+            slots[i] = store(skyLight[i]);
+            slots[i + 16] = store(blockLight[i]);
+        }
+
+        int[] previousSlots = storedLight.put(getChunkSectionIndex(x, z), slots);
+        if (previousSlots != null) {
+            free(previousSlots);
+        }
     }
 
-    public ChunkLight getStoredLight(int x, int z) {
-        return storedLight.get(getChunkSectionIndex(x, z));
+    /**
+     * Returns the stored light of a chunk. Sections with light are returned as copies of their slots, as they end up
+     * in the chunk written after the handler returns and may be modified by the non-full block light fix, while the
+     * slot may be reused by then.
+     *
+     * @param x chunk x
+     * @param z chunk z
+     * @return stored light of the chunk, or null if none is stored
+     */
+    public @Nullable ChunkLight getStoredLight(int x, int z) {
+        int[] slots = storedLight.get(getChunkSectionIndex(x, z));
+        if (slots == null) {
+            return null;
+        }
+
+        byte[][] skyLight = new byte[16][];
+        byte[][] blockLight = new byte[16][];
+        for (int i = 0; i < 16; i++) {
+            skyLight[i] = load(slots[i]);
+            blockLight[i] = load(slots[i + 16]);
+        }
+        return new ChunkLight(skyLight, blockLight);
     }
 
     public void clear() {
         storedLight.clear();
+        slabs.clear();
+        freeSlots.clear();
+        usedSlots = 0;
     }
 
     public void unloadChunk(int x, int z) {
-        storedLight.remove(getChunkSectionIndex(x, z));
+        int[] slots = storedLight.remove(getChunkSectionIndex(x, z));
+        if (slots != null) {
+            free(slots);
+        }
     }
 
-    private long getChunkSectionIndex(int x, int z) {
-        return ((x & 0x3FFFFFFL) << 38) | (z & 0x3FFFFFFL);
+    /**
+     * Returns the number of chunks with stored light.
+     *
+     * @return number of chunks with stored light
+     */
+    public int size() {
+        return storedLight.size();
     }
 
-    private Map<Long, ChunkLight> createLongObjectMap() {
-        if (fastUtilLongObjectHashMap != null) {
-            try {
-                return (Map<Long, ChunkLight>) fastUtilLongObjectHashMap.newInstance();
-            } catch (IllegalAccessException | InstantiationException | InvocationTargetException e) {
-                e.printStackTrace();
+    /**
+     * Returns the number of off-heap bytes allocated for light data, including free slots.
+     *
+     * @return allocated light bytes
+     */
+    public long allocatedBytes() {
+        return (long) slabs.size() * SLOTS_PER_SLAB * SECTION_LIGHT_LENGTH;
+    }
+
+    private int store(byte @Nullable [] light) {
+        if (light == null) {
+            return NO_LIGHT;
+        }
+        if (light == EMPTY_LIGHT || isFilledWith(light, (byte) 0)) {
+            return EMPTY_LIGHT_SLOT;
+        }
+        if (light == FULL_LIGHT || isFilledWith(light, (byte) 0xFF)) {
+            return FULL_LIGHT_SLOT;
+        }
+
+        int slot;
+        if (!freeSlots.isEmpty()) {
+            slot = freeSlots.removeInt(freeSlots.size() - 1);
+        } else {
+            if (usedSlots == slabs.size() * SLOTS_PER_SLAB) {
+                slabs.add(ByteBuffer.allocateDirect(SLOTS_PER_SLAB * SECTION_LIGHT_LENGTH));
             }
+            slot = usedSlots;
         }
-        return new HashMap<>();
+
+        usedSlots++;
+        slabs.get(slot / SLOTS_PER_SLAB).put((slot % SLOTS_PER_SLAB) * SECTION_LIGHT_LENGTH, light, 0, SECTION_LIGHT_LENGTH);
+        return slot;
+    }
+
+    private byte @Nullable [] load(int slot) {
+        return switch (slot) {
+            case NO_LIGHT -> null;
+            case EMPTY_LIGHT_SLOT -> EMPTY_LIGHT;
+            case FULL_LIGHT_SLOT -> FULL_LIGHT;
+            default -> {
+                byte[] light = new byte[SECTION_LIGHT_LENGTH];
+                slabs.get(slot / SLOTS_PER_SLAB).get((slot % SLOTS_PER_SLAB) * SECTION_LIGHT_LENGTH, light, 0, SECTION_LIGHT_LENGTH);
+                yield light;
+            }
+        };
+    }
+
+    private void free(int[] slots) {
+        for (int slot : slots) {
+            if (slot >= 0) {
+                freeSlots.add(slot);
+                usedSlots--;
+            }
+        }
+
+        if (usedSlots == 0) {
+            // Give the slabs back
+            slabs.clear();
+            freeSlots.clear();
+        }
+    }
+
+    private static boolean isFilledWith(byte[] light, byte value) {
+        for (byte b : light) {
+            if (b != value) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private long getChunkSectionIndex(int x, int z) {
+        return ((x & 0x3FFFFFFL) << 38) | (z & 0x3FFFFFFL);
     }
 
     public record ChunkLight(byte[][] skyLight, byte[][] blockLight) {
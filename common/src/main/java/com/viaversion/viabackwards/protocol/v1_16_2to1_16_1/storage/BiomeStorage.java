@@ -24,7 +24,10 @@ import com.viaversion.viaversion.libs.fastutil.ints.Int2IntOpenHashMap;
 
 public final class BiomeStorage implements StorableObject {
 
+    private static final int[] EMPTY = new int[0];
     private final Int2IntMap modernToLegacyBiomes = new Int2IntOpenHashMap();
+    private int[] legacyBiomes = EMPTY;
+    private boolean legacyIds = true;
 
     public BiomeStorage() {
         modernToLegacyBiomes.defaultReturnValue(-1);
@@ -32,13 +35,52 @@ public final class BiomeStorage implements StorableObject {
 
     public void addBiome(final String biome, final int id) {
         modernToLegacyBiomes.put(id, BiomeMappings1_16_1.toLegacyBiome(biome));
+        legacyBiomes = null;
     }
 
     public int legacyBiome(final int biome) {
         return modernToLegacyBiomes.get(biome);
     }
 
+    /**
+     * Returns the legacy biome ids indexed by registry id, with -1 for unknown biomes.
+     *
+     * @return legacy biome ids by registry id, must not be modified
+     */
+    public int[] legacyBiomes() {
+        if (legacyBiomes == null) {
+            int maxId = -1;
+            for (final int id : modernToLegacyBiomes.keySet()) {
+                maxId = Math.max(maxId, id);
+            }
+
+            final int[] legacyBiomes = new int[maxId + 1];
+            boolean legacyIds = true;
+            for (int id = 0; id < legacyBiomes.length; id++) {
+                final int legacyBiome = modernToLegacyBiomes.get(id);
+                legacyBiomes[id] = legacyBiome;
+                legacyIds &= legacyBiome == -1 || legacyBiome == id;
+            }
+            this.legacyBiomes = legacyBiomes;
+            this.legacyIds = legacyIds;
+        }
+        return legacyBiomes;
+    }
+
+    /**
+     * Returns whether every known registry id already is the legacy id of its biome, as is the case for the vanilla
+     * registry, so that only unknown biomes have to be replaced.
+     *
+     * @return true if all known registry ids are legacy ids
+     */
+    public boolean hasLegacyIds() {
+        legacyBiomes();
+        return legacyIds;
+    }
+
     public void clear() {
         modernToLegacyBiomes.clear();
+        legacyBiomes = EMPTY;
+        legacyIds = true;
     }
 }
@@ -113,22 +113,27 @@ public class BlockItemPacketRewriter1_16 extends BackwardsItemRewriter<Clientbou
             }
 
             if (chunk.isBiomeData()) {
+                int[] biomeData = chunk.getBiomeData();
                 if (connection.getProtocolInfo().serverProtocolVersion().newerThanOrEqualTo(ProtocolVersion.v1_16_2)) {
                     BiomeStorage biomeStorage = connection.get(BiomeStorage.class);
+                    int[] legacyBiomes = biomeStorage.legacyBiomes();
+                    // Skip remapping if the registry ids already are the legacy ids, only unknown biomes are replaced then
+                    boolean legacyIds = biomeStorage.hasLegacyIds();
                     for (int i = 0; i < 1024; i++) {
-                        int biome = chunk.getBiomeData()[i];
-                        int legacyBiome = biomeStorage.legacyBiome(biome);
+                        int biome = biomeData[i];
+                        int legacyBiome = biome >= 0 && biome < legacyBiomes.length ? legacyBiomes[biome] : -1;
                         if (legacyBiome == -1) {
                             protocol.getLogger().warning("Biome sent that does not exist in the biome registry: " + biome);
-                            legacyBiome = 1;
+                            biomeData[i] = 1;
+                        } else if (!legacyIds) {
+                            biomeData[i] = legacyBiome;
                         }
-                        chunk.getBiomeData()[i] = legacyBiome;
                     }
                 } else {
                     for (int i = 0; i < 1024; i++) {
-                        int biome = chunk.getBiomeData()[i];
-                        switch (biome) {
-                            case 170, 171, 172, 173 -> chunk.getBiomeData()[i] = 8;
+                        int biome = biomeData[i];
+                        if (biome >= 170 && biome <= 173) {
+                            biomeData[i] = 8; // Nether biomes
                         }
                     }
                 }
@@ -18,6 +18,7 @@
 package com.viaversion.viabackwards.protocol.v1_18to1_17_1.rewriter;
 
 import com.viaversion.viabackwards.api.rewriters.BackwardsItemRewriter;
+import com.viaversion.viabackwards.api.type.RemainingBytesSliceType;
 import com.viaversion.viabackwards.protocol.v1_18to1_17_1.Protocol1_18To1_17_1;
 import com.viaversion.viabackwards.protocol.v1_18to1_17_1.data.BlockEntityMappings1_17_1;
 import com.viaversion.viaversion.api.data.ParticleMappings;
@@ -31,6 +32,8 @@ import com.viaversion.viaversion.api.minecraft.chunks.DataPalette;
 import com.viaversion.viaversion.api.minecraft.chunks.PaletteType;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
+import com.viaversion.viaversion.api.protocol.version.ProtocolVersion;
+import com.viaversion.viaversion.api.type.Type;
 import com.viaversion.viaversion.api.type.Types;
 import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_17;
 import com.viaversion.viaversion.api.type.types.chunk.ChunkType1_18;
@@ -41,12 +44,16 @@ import com.viaversion.viaversion.protocols.v1_17to1_17_1.packet.ClientboundPacke
 import com.viaversion.viaversion.rewriter.RecipeRewriter;
 import com.viaversion.viaversion.util.Key;
 import com.viaversion.viaversion.util.MathUtil;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
 import java.util.ArrayList;
 import java.util.BitSet;
 import java.util.List;
 
 public final class BlockItemPacketRewriter1_18 extends BackwardsItemRewriter<ClientboundPackets1_18, ServerboundPackets1_17, Protocol1_18To1_17_1> {
 
+    private static final Type<ByteBuf> REMAINING_BYTES_SLICE = new RemainingBytesSliceType();
+
     public BlockItemPacketRewriter1_18(final Protocol1_18To1_17_1 protocol) {
         super(protocol, Types.ITEM1_13_2, Types.ITEM1_13_2_ARRAY);
     }
@@ -174,8 +181,23 @@ public final class BlockItemPacketRewriter1_18 extends BackwardsItemRewriter<Cli
             final ChunkSection[] sections = oldChunk.getSections();
             final BitSet mask = new BitSet(oldChunk.getSections().length);
             final int[] biomeData = new int[sections.length * ChunkSection.BIOME_SIZE];
+
+            // Pre-1.17 clients only get the sections between y 0 and 255, the others are dropped in the next protocol anyway
+            int fromSection = 0;
+            int toSection = sections.length;
+            if (wrapper.user().getProtocolInfo().protocolVersion().olderThan(ProtocolVersion.v1_17)) {
+                fromSection = Math.max(0, -(tracker.currentMinY() >> 4));
+                toSection = Math.min(sections.length, fromSection + 16);
+            }
+
             int biomeIndex = 0;
             for (int j = 0; j < sections.length; j++) {
+                if (j < fromSection || j >= toSection) {
+                    sections[j] = null;
+                    biomeIndex += ChunkSection.BIOME_SIZE;
+                    continue;
+                }
+
                 final ChunkSection section = sections[j];
                 // Write biome palette into biome array
                 final DataPalette biomePalette = section.palette(PaletteType.BIOMES);
@@ -219,28 +241,21 @@ public final class BlockItemPacketRewriter1_18 extends BackwardsItemRewriter<Cli
             wrapper.write(new ChunkType1_17(tracker.currentWorldSectionHeight()), chunk);
 
             // Create and send light packet first
-            final PacketWrapper lightPacket = wrapper.create(ClientboundPackets1_17_1.LIGHT_UPDATE);
-            lightPacket.write(Types.VAR_INT, chunk.getX());
-            lightPacket.write(Types.VAR_INT, chunk.getZ());
-            lightPacket.write(Types.BOOLEAN, wrapper.read(Types.BOOLEAN)); // Trust edges
-            lightPacket.write(Types.LONG_ARRAY_PRIMITIVE, wrapper.read(Types.LONG_ARRAY_PRIMITIVE)); // Sky light mask
-            lightPacket.write(Types.LONG_ARRAY_PRIMITIVE, wrapper.read(Types.LONG_ARRAY_PRIMITIVE)); // Block light mask
-            lightPacket.write(Types.LONG_ARRAY_PRIMITIVE, wrapper.read(Types.LONG_ARRAY_PRIMITIVE)); // Empty sky light mask
-            lightPacket.write(Types.LONG_ARRAY_PRIMITIVE, wrapper.read(Types.LONG_ARRAY_PRIMITIVE)); // Empty block light mask
+            // The light data (masks and sky/block light arrays) has the same layout as in the light update packet,
+            // so it is forwarded as a slice of the original buffer instead of being read and written again
+            final boolean trustEdges = wrapper.read(Types.BOOLEAN);
+            final ByteBuf header = Unpooled.buffer(11);
+            Types.VAR_INT.writePrimitive(header, chunk.getX());
+            Types.VAR_INT.writePrimitive(header, chunk.getZ());
+            header.writeBoolean(trustEdges);
 
-            final int skyLightLength = wrapper.read(Types.VAR_INT);
-            lightPacket.write(Types.VAR_INT, skyLightLength);
-            for (int i = 0; i < skyLightLength; i++) {
-                lightPacket.write(Types.BYTE_ARRAY_PRIMITIVE, wrapper.read(Types.BYTE_ARRAY_PRIMITIVE));
+            final ByteBuf lightData = Unpooled.wrappedBuffer(header, wrapper.read(REMAINING_BYTES_SLICE));
+            try {
+                final PacketWrapper lightPacket = PacketWrapper.create(ClientboundPackets1_17_1.LIGHT_UPDATE, lightData, wrapper.user());
+                lightPacket.send(Protocol1_18To1_17_1.class);
+            } finally {
+                lightData.release();
             }
-
-            final int blockLightLength = wrapper.read(Types.VAR_INT);
-            lightPacket.write(Types.VAR_INT, blockLightLength);
-            for (int i = 0; i < blockLightLength; i++) {
-                lightPacket.write(Types.BYTE_ARRAY_PRIMITIVE, wrapper.read(Types.BYTE_ARRAY_PRIMITIVE));
-            }
-
-            lightPacket.send(Protocol1_18To1_17_1.class);
         });
 
         protocol.cancelClientbound(ClientboundPackets1_18.SET_SIMULATION_DISTANCE);
@@ -19,6 +19,7 @@ package com.viaversion.viabackwards.protocol.v1_19_1to1_19;
 
 import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.BackwardsProtocol;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.api.rewriters.TranslatableRewriter;
 import com.viaversion.viabackwards.protocol.v1_19_1to1_19.rewriter.EntityPacketRewriter1_19_1;
 import com.viaversion.viabackwards.protocol.v1_19_1to1_19.storage.ChatRegistryStorage;
@@ -90,6 +91,8 @@ public final class Protocol1_19_1To1_19 extends BackwardsProtocol<ClientboundPac
 
         entityRewriter.register();
 
+        FusedChunkRewriter.passthrough(this).register(ClientboundPackets1_19_1.LEVEL_CHUNK_WITH_LIGHT);
+
         registerClientbound(ClientboundPackets1_19_1.LOGIN, new PacketHandlers() {
             @Override
             public void register() {
@@ -385,6 +388,7 @@ public final class Protocol1_19_1To1_19 extends BackwardsProtocol<ClientboundPac
         cancelClientbound(ClientboundPackets1_19_1.CUSTOM_CHAT_COMPLETIONS); // Can't do anything with them unless we add clutter clients with fake player profiles
         cancelClientbound(ClientboundPackets1_19_1.DELETE_CHAT); // Can't do without the old "send 50 empty lines and then resend previous messages" trick
         cancelClientbound(ClientboundPackets1_19_1.PLAYER_CHAT_HEADER);
+        loadTranslatableMappingsAsync();
     }
 
     @Override
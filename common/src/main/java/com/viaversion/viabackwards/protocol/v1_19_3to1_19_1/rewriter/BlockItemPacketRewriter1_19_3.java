@@ -18,6 +18,7 @@
 package com.viaversion.viabackwards.protocol.v1_19_3to1_19_1.rewriter;
 
 import com.viaversion.viabackwards.api.rewriters.BackwardsItemRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.protocol.v1_19_3to1_19_1.Protocol1_19_3To1_19_1;
 import com.viaversion.viaversion.api.minecraft.item.Item;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
@@ -42,7 +43,7 @@ public final class BlockItemPacketRewriter1_19_3 extends BackwardsItemRewriter<C
         blockRewriter.registerBlockUpdate(ClientboundPackets1_19_3.BLOCK_UPDATE);
         blockRewriter.registerSectionBlocksUpdate(ClientboundPackets1_19_3.SECTION_BLOCKS_UPDATE);
         blockRewriter.registerLevelEvent(ClientboundPackets1_19_3.LEVEL_EVENT, 1010, 2001);
-        blockRewriter.registerLevelChunk1_19(ClientboundPackets1_19_3.LEVEL_CHUNK_WITH_LIGHT, ChunkType1_18::new);
+        FusedChunkRewriter.of(protocol, ChunkType1_18::new, ChunkType1_18::new).register(ClientboundPackets1_19_3.LEVEL_CHUNK_WITH_LIGHT);
         blockRewriter.registerBlockEntityData(ClientboundPackets1_19_3.BLOCK_ENTITY_DATA);
 
         registerCooldown(ClientboundPackets1_19_3.COOLDOWN);
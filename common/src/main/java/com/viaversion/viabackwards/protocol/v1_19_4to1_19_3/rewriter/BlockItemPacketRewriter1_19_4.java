@@ -18,6 +18,7 @@
 package com.viaversion.viabackwards.protocol.v1_19_4to1_19_3.rewriter;
 
 import com.viaversion.viabackwards.api.rewriters.BackwardsItemRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.protocol.v1_19_4to1_19_3.Protocol1_19_4To1_19_3;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
 import com.viaversion.viaversion.api.protocol.remapper.PacketHandlers;
@@ -42,7 +43,7 @@ public final class BlockItemPacketRewriter1_19_4 extends BackwardsItemRewriter<C
         blockRewriter.registerBlockUpdate(ClientboundPackets1_19_4.BLOCK_UPDATE);
         blockRewriter.registerSectionBlocksUpdate(ClientboundPackets1_19_4.SECTION_BLOCKS_UPDATE);
         blockRewriter.registerLevelEvent(ClientboundPackets1_19_4.LEVEL_EVENT, 1010, 2001);
-        blockRewriter.registerLevelChunk1_19(ClientboundPackets1_19_4.LEVEL_CHUNK_WITH_LIGHT, ChunkType1_18::new);
+        FusedChunkRewriter.of(protocol, ChunkType1_18::new, ChunkType1_18::new).register(ClientboundPackets1_19_4.LEVEL_CHUNK_WITH_LIGHT);
         blockRewriter.registerBlockEntityData(ClientboundPackets1_19_4.BLOCK_ENTITY_DATA);
 
         protocol.registerClientbound(ClientboundPackets1_19_4.OPEN_SCREEN, new PacketHandlers() {
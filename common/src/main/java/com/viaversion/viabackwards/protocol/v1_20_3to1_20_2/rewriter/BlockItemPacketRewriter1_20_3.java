@@ -19,6 +19,7 @@ package com.viaversion.viabackwards.protocol.v1_20_3to1_20_2.rewriter;
 
 import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.rewriters.BackwardsItemRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.protocol.v1_20_3to1_20_2.Protocol1_20_3To1_20_2;
 import com.viaversion.viaversion.api.data.ParticleMappings;
 import com.viaversion.viaversion.api.protocol.packet.PacketWrapper;
@@ -47,7 +48,7 @@ public final class BlockItemPacketRewriter1_20_3 extends BackwardsItemRewriter<C
         blockRewriter.registerBlockUpdate(ClientboundPackets1_20_3.BLOCK_UPDATE);
         blockRewriter.registerSectionBlocksUpdate1_20(ClientboundPackets1_20_3.SECTION_BLOCKS_UPDATE);
         blockRewriter.registerLevelEvent(ClientboundPackets1_20_3.LEVEL_EVENT, 1010, 2001);
-        blockRewriter.registerLevelChunk1_19(ClientboundPackets1_20_3.LEVEL_CHUNK_WITH_LIGHT, ChunkType1_20_2::new);
+        FusedChunkRewriter.of(protocol, ChunkType1_20_2::new, ChunkType1_20_2::new).register(ClientboundPackets1_20_3.LEVEL_CHUNK_WITH_LIGHT);
         blockRewriter.registerBlockEntityData(ClientboundPackets1_20_3.BLOCK_ENTITY_DATA);
 
         registerCooldown(ClientboundPackets1_20_3.COOLDOWN);
@@ -17,6 +17,7 @@
  */
 package com.viaversion.viabackwards.protocol.v1_20_5to1_20_3;
 
+import com.viaversion.viabackwards.ViaBackwards;
 import com.viaversion.viabackwards.api.BackwardsProtocol;
 import com.viaversion.viabackwards.api.data.BackwardsMappingData;
 import com.viaversion.viabackwards.api.rewriters.SoundRewriter;
@@ -27,6 +28,7 @@ import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.rewriter.EntityPacke
 import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage.CookieStorage;
 import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage.RegistryDataStorage;
 import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage.SecureChatStorage;
+import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage.StructuredItemCache;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.RegistryType;
@@ -91,7 +93,14 @@ public final class Protocol1_20_5To1_20_3 extends BackwardsProtocol<ClientboundP
             // In case the server for some reason does not send tags
             sendRegistryData(wrapper.user());
         });
-        registerClientbound(ClientboundPackets1_20_5.START_CONFIGURATION, wrapper -> wrapper.user().get(RegistryDataStorage.class).clear());
+        registerClientbound(ClientboundPackets1_20_5.START_CONFIGURATION, wrapper -> {
+            wrapper.user().get(RegistryDataStorage.class).clear();
+
+            final StructuredItemCache itemCache = wrapper.user().get(StructuredItemCache.class);
+            if (itemCache != null) {
+                itemCache.clear();
+            }
+        });
 
         final SoundRewriter<ClientboundPacket1_20_5> soundRewriter = new SoundRewriter<>(this);
         soundRewriter.registerSound1_19_3(ClientboundPackets1_20_5.SOUND);
@@ -235,6 +244,9 @@ public final class Protocol1_20_5To1_20_3 extends BackwardsProtocol<ClientboundP
         user.put(new RegistryDataStorage());
         user.put(new BannerPatternStorage());
         user.put(new ArmorTrimStorage());
+        if (ViaBackwards.getConfig().structuredItemCacheSize() > 0) {
+            user.put(new StructuredItemCache(ViaBackwards.getConfig().structuredItemCacheSize()));
+        }
     }
 
     @Override
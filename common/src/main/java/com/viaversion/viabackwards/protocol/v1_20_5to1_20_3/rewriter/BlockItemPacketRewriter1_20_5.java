@@ -23,8 +23,10 @@ import com.viaversion.nbt.tag.ListTag;
 import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
 import com.viaversion.viabackwards.api.rewriters.BackwardsStructuredItemRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.api.rewriters.StructuredEnchantmentRewriter;
 import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.Protocol1_20_5To1_20_3;
+import com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage.StructuredItemCache;
 import com.viaversion.viaversion.api.Via;
 import com.viaversion.viaversion.api.connection.UserConnection;
 import com.viaversion.viaversion.api.minecraft.Holder;
@@ -51,6 +53,7 @@ import com.viaversion.viaversion.protocols.v1_20_3to1_20_5.packet.ClientboundPac
 import com.viaversion.viaversion.protocols.v1_20_3to1_20_5.rewriter.StructuredDataConverter;
 import com.viaversion.viaversion.rewriter.BlockRewriter;
 import com.viaversion.viaversion.util.Key;
+import java.nio.ByteBuffer;
 import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class BlockItemPacketRewriter1_20_5 extends BackwardsStructuredItemRewriter<ClientboundPacket1_20_5, ServerboundPacket1_20_3, Protocol1_20_5To1_20_3> {
@@ -71,7 +74,9 @@ public final class BlockItemPacketRewriter1_20_5 extends BackwardsStructuredItem
         blockRewriter.registerBlockUpdate(ClientboundPackets1_20_5.BLOCK_UPDATE);
         blockRewriter.registerSectionBlocksUpdate1_20(ClientboundPackets1_20_5.SECTION_BLOCKS_UPDATE);
         blockRewriter.registerLevelEvent(ClientboundPackets1_20_5.LEVEL_EVENT, 1010, 2001);
-        blockRewriter.registerLevelChunk1_19(ClientboundPackets1_20_5.LEVEL_CHUNK_WITH_LIGHT, ChunkType1_20_2::new, (user, blockEntity) -> updateBlockEntityTag(user, blockEntity.tag()));
+        FusedChunkRewriter.of(protocol, ChunkType1_20_2::new, ChunkType1_20_2::new)
+            .blockEntityHandler((user, blockEntity) -> updateBlockEntityTag(user, blockEntity.tag()))
+            .register(ClientboundPackets1_20_5.LEVEL_CHUNK_WITH_LIGHT);
         protocol.registerClientbound(ClientboundPackets1_20_5.BLOCK_ENTITY_DATA, wrapper -> {
             wrapper.passthrough(Types.BLOCK_POSITION1_14); // Position
             wrapper.passthrough(Types.VAR_INT); // Block entity type
@@ -352,6 +357,15 @@ public final class BlockItemPacketRewriter1_20_5 extends BackwardsStructuredItem
             return null;
         }
 
+        final StructuredItemCache cache = connection.get(StructuredItemCache.class);
+        final ByteBuffer fingerprint = cache != null ? cache.fingerprint(item) : null;
+        if (fingerprint != null) {
+            final Item cachedItem = cache.get(fingerprint, item.amount());
+            if (cachedItem != null) {
+                return cachedItem;
+            }
+        }
+
         item.dataContainer().setIdLookup(protocol, true);
         enchantmentRewriter.handleToClient(item);
 
@@ -368,6 +382,10 @@ public final class BlockItemPacketRewriter1_20_5 extends BackwardsStructuredItem
             // Improve item equality checks by removing empty tags
             oldItem.setTag(null);
         }
+
+        if (fingerprint != null) {
+            cache.put(fingerprint, oldItem);
+        }
         return oldItem;
     }
 
@@ -0,0 +1,102 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage;
+
+import com.viaversion.viaversion.api.connection.StorableObject;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.type.types.version.Types1_20_5;
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.nio.ByteBuffer;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * LRU cache of structured items converted to legacy items, keyed by the serialized item with its amount ignored.
+ * The conversion depends on the registries sent by the server, so this is cleared whenever the configuration phase
+ * is entered again.
+ */
+public final class StructuredItemCache implements StorableObject {
+
+    private final ByteBuf buffer = Unpooled.buffer();
+    private final Map<ByteBuffer, Item> items;
+
+    public StructuredItemCache(final int maxEntries) {
+        this.items = new LinkedHashMap<>(64, 0.75F, true) {
+            @Override
+            protected boolean removeEldestEntry(final Map.Entry<ByteBuffer, Item> eldest) {
+                return size() > maxEntries;
+            }
+        };
+    }
+
+    /**
+     * Returns the fingerprint of the given structured item before it is converted.
+     *
+     * @param item structured item
+     * @return fingerprint of the item, or null if it could not be serialized
+     */
+    public @Nullable ByteBuffer fingerprint(final Item item) {
+        final int amount = item.amount();
+        item.setAmount(1);
+        buffer.clear();
+        try {
+            Types1_20_5.ITEM.write(buffer, item);
+        } catch (final Exception e) {
+            return null;
+        } finally {
+            item.setAmount(amount);
+        }
+
+        final byte[] bytes = new byte[buffer.readableBytes()];
+        buffer.readBytes(bytes);
+        return ByteBuffer.wrap(bytes);
+    }
+
+    /**
+     * Returns a copy of the cached legacy item with the given amount.
+     *
+     * @param fingerprint fingerprint of the structured item
+     * @param amount      item amount
+     * @return copy of the cached item, or null if not cached
+     */
+    public @Nullable Item get(final ByteBuffer fingerprint, final int amount) {
+        final Item item = items.get(fingerprint);
+        if (item == null) {
+            return null;
+        }
+
+        final Item copy = item.copy();
+        copy.setAmount(amount);
+        return copy;
+    }
+
+    public void put(final ByteBuffer fingerprint, final Item item) {
+        items.put(fingerprint, item.copy());
+    }
+
+    public void clear() {
+        items.clear();
+    }
+
+    @Override
+    public boolean clearOnServerSwitch() {
+        return false;
+    }
+}
@@ -18,6 +18,7 @@
 package com.viaversion.viabackwards.protocol.v1_20to1_19_4.rewriter;
 
 import com.viaversion.viabackwards.api.rewriters.BackwardsItemRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.protocol.v1_20to1_19_4.Protocol1_20To1_19_4;
 import com.viaversion.viabackwards.protocol.v1_20to1_19_4.storage.BackSignEditStorage;
 import com.viaversion.viaversion.api.connection.UserConnection;
@@ -58,13 +59,10 @@ public final class BlockItemPacketRewriter1_20 extends BackwardsItemRewriter<Cli
         blockRewriter.registerLevelEvent(ClientboundPackets1_19_4.LEVEL_EVENT, 1010, 2001);
         blockRewriter.registerBlockEntityData(ClientboundPackets1_19_4.BLOCK_ENTITY_DATA, this::handleBlockEntity);
 
-        protocol.registerClientbound(ClientboundPackets1_19_4.LEVEL_CHUNK_WITH_LIGHT, new PacketHandlers() {
-            @Override
-            protected void register() {
-                handler(blockRewriter.chunkHandler1_19(ChunkType1_18::new, (user, blockEntity) -> handleBlockEntity(blockEntity)));
-                create(Types.BOOLEAN, true); // Trust edges
-            }
-        });
+        FusedChunkRewriter.of(protocol, ChunkType1_18::new, ChunkType1_18::new)
+            .blockEntityHandler((user, blockEntity) -> handleBlockEntity(blockEntity))
+            .afterChunkHandler(wrapper -> wrapper.write(Types.BOOLEAN, true)) // Trust edges
+            .register(ClientboundPackets1_19_4.LEVEL_CHUNK_WITH_LIGHT);
 
         protocol.registerClientbound(ClientboundPackets1_19_4.LIGHT_UPDATE, wrapper -> {
             wrapper.passthrough(Types.VAR_INT); // X
@@ -22,6 +22,7 @@ import com.viaversion.nbt.tag.StringTag;
 import com.viaversion.nbt.tag.Tag;
 import com.viaversion.viabackwards.api.rewriters.BackwardsStructuredItemRewriter;
 import com.viaversion.viabackwards.api.rewriters.EnchantmentRewriter;
+import com.viaversion.viabackwards.api.rewriters.FusedChunkRewriter;
 import com.viaversion.viabackwards.api.rewriters.StructuredEnchantmentRewriter;
 import com.viaversion.viabackwards.protocol.v1_21to1_20_5.Protocol1_21To1_20_5;
 import com.viaversion.viabackwards.protocol.v1_21to1_20_5.storage.EnchantmentsPaintingsStorage;
@@ -70,7 +71,7 @@ public final class BlockItemPacketRewriter1_21 extends BackwardsStructuredItemRe
         blockRewriter.registerBlockEvent(ClientboundPackets1_21.BLOCK_EVENT);
         blockRewriter.registerBlockUpdate(ClientboundPackets1_21.BLOCK_UPDATE);
         blockRewriter.registerSectionBlocksUpdate1_20(ClientboundPackets1_21.SECTION_BLOCKS_UPDATE);
-        blockRewriter.registerLevelChunk1_19(ClientboundPackets1_21.LEVEL_CHUNK_WITH_LIGHT, ChunkType1_20_2::new);
+        FusedChunkRewriter.of(protocol, ChunkType1_20_2::new, ChunkType1_20_2::new).register(ClientboundPackets1_21.LEVEL_CHUNK_WITH_LIGHT);
         blockRewriter.registerBlockEntityData(ClientboundPackets1_21.BLOCK_ENTITY_DATA);
 
         registerCooldown(ClientboundPackets1_21.COOLDOWN);
@@ -68,5 +68,6 @@ public class Protocol1_9_1To1_9 extends BackwardsProtocol<ClientboundPackets1_9,
 
         TranslatableRewriter<ClientboundPackets1_9> componentRewriter = new TranslatableRewriter<>(this, ComponentRewriter.ReadType.JSON);
         componentRewriter.registerComponentPacket(ClientboundPackets1_9.CHAT);
+        loadTranslatableMappingsAsync();
     }
 }
\ No newline at end of file
@@ -17,30 +17,62 @@
  */
 package com.viaversion.viabackwards.utils;
 
+import com.viaversion.viabackwards.ViaBackwards;
+import com.viaversion.viabackwards.utils.TextConversionCache.Conversion;
+import com.viaversion.viaversion.libs.gson.JsonElement;
 import com.viaversion.viaversion.libs.mcstructs.text.ATextComponent;
 import com.viaversion.viaversion.libs.mcstructs.text.Style;
 import com.viaversion.viaversion.libs.mcstructs.text.components.TranslationComponent;
 import com.viaversion.viaversion.libs.mcstructs.text.serializer.LegacyStringDeserializer;
+import com.viaversion.viaversion.util.ComponentUtil;
 import com.viaversion.viaversion.util.SerializerVersion;
-import java.util.HashSet;
-import java.util.Objects;
-import java.util.Set;
 import java.util.function.Consumer;
-import java.util.regex.Pattern;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
 
 public final class ChatUtil {
-    private static final Pattern UNUSED_COLOR_PATTERN = Pattern.compile("(?>(?>§[0-fk-or])*(§r|\\Z))|(?>(?>§[0-f])*(§[0-f]))");
-    private static final Pattern UNUSED_COLOR_PATTERN_PREFIX = Pattern.compile("(?>(?>§[0-fk-or])*(§r))|(?>(?>§[0-f])*(§[0-f]))");
+    private static final SerializerVersion SERIALIZER_VERSION = SerializerVersion.V1_12; // Also used by ComponentUtil's legacy conversions
+    private static final ThreadLocal<LegacyColorNormalizer> COLOR_NORMALIZER = ThreadLocal.withInitial(LegacyColorNormalizer::new);
 
     public static String removeUnusedColor(String legacy, char defaultColor) {
         return removeUnusedColor(legacy, defaultColor, false);
     }
 
     public static String legacyToJsonString(String legacy, String translation, boolean itemData) {
-        return legacyToJsonString(legacy, text -> {
+        return cached(itemData ? Conversion.ITEM_JSON_STRING : Conversion.JSON_STRING, legacy, translation, () -> legacyToJsonString(legacy, text -> {
             text.append(" ");
             text.append(new TranslationComponent(translation));
-        }, itemData);
+        }, itemData));
+    }
+
+    /**
+     * Cached variant of {@link ComponentUtil#legacyToJsonString(String)}.
+     */
+    public static String legacyToJsonString(String legacy) {
+        return legacyToJsonString(legacy, false);
+    }
+
+    /**
+     * Cached variant of {@link ComponentUtil#legacyToJsonString(String, boolean)}.
+     */
+    public static String legacyToJsonString(String legacy, boolean itemData) {
+        return cached(itemData ? Conversion.ITEM_JSON_STRING : Conversion.JSON_STRING, legacy, null, () -> ComponentUtil.legacyToJsonString(legacy, itemData));
+    }
+
+    /**
+     * Cached variant of {@link ComponentUtil#legacyToJson(String)}, returning a copy of the cached element.
+     */
+    public static JsonElement legacyToJson(String legacy) {
+        final JsonElement element = cached(Conversion.JSON, legacy, null, () -> ComponentUtil.legacyToJson(legacy));
+        return element.deepCopy();
+    }
+
+    private static <T> T cached(Conversion conversion, String legacy, @Nullable String argument, Supplier<T> converter) {
+        final TextConversionCache cache = ViaBackwards.getTextConversionCache();
+        if (cache == null) {
+            return converter.get();
+        }
+        return cache.get(new TextConversionCache.Key(conversion, SERIALIZER_VERSION, legacy, argument), converter);
     }
 
     public static String legacyToJsonString(String legacy, Consumer<ATextComponent> consumer, boolean itemData) {
@@ -50,110 +82,172 @@ public final class ChatUtil {
         if (itemData) {
             component.setParentStyle((new Style()).setItalic(false));
         }
-        return SerializerVersion.V1_12.toString(component);
+        return SERIALIZER_VERSION.toString(component);
     }
 
-    private static class ChatFormattingState {
-        private final Set<Character> formatting;
-        private final char defaultColor;
-        private char color;
+    public static String fromLegacy(String legacy, char defaultColor, int limit) {
+        return fromLegacy(legacy, defaultColor, limit, false);
+    }
 
-        private ChatFormattingState(char defaultColor) {
-            this(new HashSet<>(), defaultColor, defaultColor);
-        }
+    public static String fromLegacyPrefix(String legacy, char defaultColor, int limit) {
+        return fromLegacy(legacy, defaultColor, limit, true);
+    }
 
-        public ChatFormattingState(Set<Character> formatting, char defaultColor, char color) {
-            this.formatting = formatting;
+    public static String fromLegacy(String legacy, char defaultColor, int limit, boolean isPrefix) {
+        legacy = removeUnusedColor(legacy, defaultColor, isPrefix);
+        if (legacy.length() > limit) legacy = legacy.substring(0, limit);
+        if (legacy.endsWith("§")) legacy = legacy.substring(0, legacy.length() - 1);
+        return legacy;
+    }
+
+    public static String removeUnusedColor(String legacy, char defaultColor, boolean isPrefix) {
+        if (legacy == null) return null;
+        return COLOR_NORMALIZER.get().normalize(legacy, defaultColor, isPrefix);
+    }
+
+    /**
+     * Removes color and formatting codes that are overridden before any text is written, then only writes
+     * the resulting formatting state right before the text it applies to, all in a single pass.
+     * Formatting codes are tracked as a bitmask and written in the order of {@link #FORMATTING_CODES}.
+     */
+    private static final class LegacyColorNormalizer {
+        private static final char[] FORMATTING_CODES = {'l', 'm', 'n', 'o'};
+        private final StringBuilder builder = new StringBuilder();
+        private char defaultColor;
+        private char color;
+        private int formatting;
+        private char writtenColor;
+        private int writtenFormatting;
+        private boolean pendingControlChar;
+
+        private String normalize(String legacy, char defaultColor, boolean isPrefix) {
+            builder.setLength(0);
             this.defaultColor = defaultColor;
-            this.color = color;
-        }
+            color = writtenColor = defaultColor;
+            formatting = writtenFormatting = 0;
+            pendingControlChar = false;
+
+            final int length = legacy.length();
+            int i = 0;
+            while (i < length) {
+                final char current = legacy.charAt(i);
+                if (current != '§' || i + 1 == length || !isCode(legacy.charAt(i + 1))) {
+                    accept(current);
+                    i++;
+                    continue;
+                }
 
-        private void setColor(char newColor) {
-            formatting.clear();
-            color = newColor;
-        }
+                // Find the end of this run of codes and of the last reset in it
+                int end = i;
+                int resetEnd = -1;
+                while (end + 1 < length && legacy.charAt(end) == '§' && isCode(legacy.charAt(end + 1))) {
+                    if (legacy.charAt(end + 1) == 'r') {
+                        resetEnd = end + 2;
+                    }
+                    end += 2;
+                }
 
-        public ChatFormattingState copy() {
-            return new ChatFormattingState(new HashSet<>(formatting), defaultColor, color);
-        }
+                if (!isPrefix && isEnd(legacy, end)) {
+                    // Not followed by any text
+                    i = end;
+                } else if (resetEnd != -1) {
+                    // Everything up to the last reset is overridden by it
+                    accept('§');
+                    accept('r');
+                    i = resetEnd;
+                } else if (isColor(legacy.charAt(i + 1))) {
+                    // Only the last of consecutive colors is kept
+                    int colorEnd = i + 2;
+                    while (colorEnd + 1 < length && legacy.charAt(colorEnd) == '§' && isColor(legacy.charAt(colorEnd + 1))) {
+                        colorEnd += 2;
+                    }
+                    accept('§');
+                    accept(legacy.charAt(colorEnd - 1));
+                    i = colorEnd;
+                } else {
+                    accept(current);
+                    i++;
+                }
+            }
 
-        public void appendTo(StringBuilder builder) {
-            builder.append('§').append(color);
-            for (Character formatCharacter : formatting) {
-                builder.append('§').append(formatCharacter);
+            if (pendingControlChar) {
+                // Trailing section sign without a control char
+                pendingControlChar = false;
+                appendText('§');
             }
+            if (isPrefix) {
+                appendState();
+            }
+            return builder.toString();
         }
 
-        @Override
-        public boolean equals(Object o) {
-            if (this == o) {
-                return true;
+        private void accept(char c) {
+            if (pendingControlChar) {
+                pendingControlChar = false;
+                processControlChar(c);
+            } else if (c == '§') {
+                pendingControlChar = true;
+            } else {
+                appendText(c);
             }
-            if (o == null || getClass() != o.getClass()) {
-                return false;
+        }
+
+        private void processControlChar(char controlChar) {
+            switch (controlChar) {
+                case 'r' -> {
+                    color = defaultColor;
+                    formatting = 0;
+                }
+                case 'l' -> formatting |= 1;
+                case 'm' -> formatting |= 1 << 1;
+                case 'n' -> formatting |= 1 << 2;
+                case 'o' -> formatting |= 1 << 3;
+                default -> {
+                    color = controlChar;
+                    formatting = 0;
+                }
             }
-            ChatFormattingState that = (ChatFormattingState) o;
-            return defaultColor == that.defaultColor
-                && color == that.color
-                && Objects.equals(formatting, that.formatting);
         }
 
-        @Override
-        public int hashCode() {
-            return Objects.hash(formatting, defaultColor, color);
+        private void appendText(char c) {
+            appendState();
+            builder.append(c);
         }
 
-        public void processNextControlChar(char controlChar) {
-            if (controlChar == 'r') {
-                setColor(defaultColor);
+        private void appendState() {
+            if (color == writtenColor && formatting == writtenFormatting) {
                 return;
             }
-            if (controlChar == 'l' || controlChar == 'm' || controlChar == 'n' || controlChar == 'o') {
-                formatting.add(controlChar);
-                return;
+
+            builder.append('§').append(color);
+            for (int i = 0; i < FORMATTING_CODES.length; i++) {
+                if ((formatting & 1 << i) != 0) {
+                    builder.append('§').append(FORMATTING_CODES[i]);
+                }
             }
-            setColor(controlChar);
+            writtenColor = color;
+            writtenFormatting = formatting;
         }
-    }
-
-    public static String fromLegacy(String legacy, char defaultColor, int limit) {
-        return fromLegacy(legacy, defaultColor, limit, false);
-    }
 
-    public static String fromLegacyPrefix(String legacy, char defaultColor, int limit) {
-        return fromLegacy(legacy, defaultColor, limit, true);
-    }
+        private static boolean isCode(char c) {
+            return isColor(c) || (c >= 'k' && c <= 'o') || c == 'r';
+        }
 
-    public static String fromLegacy(String legacy, char defaultColor, int limit, boolean isPrefix) {
-        legacy = removeUnusedColor(legacy, defaultColor, isPrefix);
-        if (legacy.length() > limit) legacy = legacy.substring(0, limit);
-        if (legacy.endsWith("§")) legacy = legacy.substring(0, legacy.length() - 1);
-        return legacy;
-    }
+        private static boolean isColor(char c) {
+            // Matches the former [0-f] pattern range, so this includes more than the hex digits
+            return c >= '0' && c <= 'f';
+        }
 
-    public static String removeUnusedColor(String legacy, char defaultColor, boolean isPrefix) {
-        if (legacy == null) return null;
-        Pattern pattern = isPrefix ? UNUSED_COLOR_PATTERN_PREFIX : UNUSED_COLOR_PATTERN;
-        legacy = pattern.matcher(legacy).replaceAll("$1$2");
-        StringBuilder builder = new StringBuilder();
-        ChatFormattingState builderState = new ChatFormattingState(defaultColor);
-        ChatFormattingState lastState = new ChatFormattingState(defaultColor);
-        for (int i = 0; i < legacy.length(); i++) {
-            char current = legacy.charAt(i);
-            if (current != '§' || i == legacy.length() - 1) {
-                if (!lastState.equals(builderState)) {
-                    lastState.appendTo(builder);
-                    builderState = lastState.copy();
-                }
-                builder.append(current);
-                continue;
+        private static boolean isEnd(String legacy, int index) {
+            // Same as \Z, which also allows a single trailing line terminator
+            final int length = legacy.length();
+            if (index == length) {
+                return true;
+            } else if (index == length - 1) {
+                final char c = legacy.charAt(index);
+                return c == '\n' || c == '\r' || c == '\u0085' || c == '\u2028' || c == '\u2029';
             }
-            current = legacy.charAt(++i);
-            lastState.processNextControlChar(current);
-        }
-        if (isPrefix && !lastState.equals(builderState)) {
-            lastState.appendTo(builder);
+            return index == length - 2 && legacy.charAt(index) == '\r' && legacy.charAt(index + 1) == '\n';
         }
-        return builder.toString();
     }
 }
@@ -0,0 +1,147 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.utils;
+
+import com.viaversion.viaversion.util.SerializerVersion;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import org.checkerframework.checker.nullness.qual.Nullable;
+
+/**
+ * Entry bounded cache of legacy text conversion results shared by all connections, as the same names, lore and titles
+ * are usually converted over and over again.
+ * <p>
+ * Lookups never lock. Once the cache is full, misses evict entries in clock order under a lock, giving entries that
+ * were used since the hand last passed them a second chance, which approximates least recently used eviction.
+ * Cached values are shared and must be immutable, or be copied before being handed out.
+ */
+public final class TextConversionCache {
+
+    private final Map<Key, Entry> entries = new ConcurrentHashMap<>();
+    private final Object evictionLock = new Object();
+    private Iterator<Entry> hand; // Guarded by evictionLock
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final int maxEntries;
+
+    public TextConversionCache(final int maxEntries) {
+        this.maxEntries = maxEntries;
+    }
+
+    /**
+     * Returns the cached result for the given key, or converts and caches it.
+     * The conversion itself runs outside of the map, so it may run more than once for the same key.
+     *
+     * @param key       cache key
+     * @param converter converter to create the value if not cached
+     * @param <T>       value type
+     * @return cached or converted value
+     */
+    @SuppressWarnings("unchecked")
+    public <T> T get(final Key key, final Supplier<T> converter) {
+        final Entry entry = entries.get(key);
+        if (entry != null) {
+            if (!entry.used) {
+                entry.used = true;
+            }
+            hits.increment();
+            return (T) entry.value;
+        }
+
+        misses.increment();
+        final T value = converter.get();
+        entries.put(key, new Entry(value));
+        if (entries.size() > maxEntries) {
+            evict();
+        }
+        return value;
+    }
+
+    private void evict() {
+        synchronized (evictionLock) {
+            if (entries.size() <= maxEntries) {
+                // Another miss already evicted
+                return;
+            }
+
+            // Evict a bit more than needed, so that not every following miss has to go through the entries again.
+            // The hand continues where it stopped last time, going around the entries at most twice
+            final int targetSize = maxEntries - maxEntries / 8;
+            int remainingChecks = entries.size() * 2;
+            while (entries.size() > targetSize && remainingChecks-- > 0) {
+                if (hand == null || !hand.hasNext()) {
+                    hand = entries.values().iterator();
+                    if (!hand.hasNext()) {
+                        break;
+                    }
+                }
+
+                final Entry entry = hand.next();
+                if (entry.used) {
+                    entry.used = false;
+                } else {
+                    hand.remove();
+                }
+            }
+        }
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    public long hits() {
+        return hits.sum();
+    }
+
+    public long misses() {
+        return misses.sum();
+    }
+
+    /**
+     * @param conversion kind of conversion
+     * @param version    serializer version of the result
+     * @param input      legacy input text
+     * @param argument   additional input of the conversion, such as an appended translation key
+     */
+    public record Key(Conversion conversion, SerializerVersion version, String input, @Nullable String argument) {
+    }
+
+    public enum Conversion {
+        JSON,
+        JSON_STRING,
+        ITEM_JSON_STRING
+    }
+
+    private static final class Entry {
+
+        private final Object value;
+        private volatile boolean used;
+
+        private Entry(final Object value) {
+            this.value = value;
+        }
+    }
+}
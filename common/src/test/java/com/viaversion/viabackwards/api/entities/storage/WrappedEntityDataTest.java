@@ -0,0 +1,119 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.entities.storage;
+
+import com.viaversion.viaversion.api.minecraft.entitydata.EntityData;
+import com.viaversion.viaversion.api.type.types.version.Types1_14;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+
+final class WrappedEntityDataTest {
+
+    @Test
+    void matchesSearchingTheList() {
+        final Random random = new Random(0);
+        for (int run = 0; run < 2000; run++) {
+            // Short lists are searched, longer ones indexed, and lists may cross the threshold in either direction
+            final List<EntityData> list = new ArrayList<>();
+            final List<EntityData> expected = new ArrayList<>();
+            for (int i = random.nextInt(20); i > 0; i--) {
+                final EntityData data = data(random.nextInt(24), random.nextInt(3));
+                list.add(data);
+                expected.add(data);
+            }
+
+            final WrappedEntityData wrapped = new WrappedEntityData(list);
+            for (int operation = 0; operation < 40; operation++) {
+                final int id = random.nextInt(30);
+                final EntityData data = data(id, random.nextInt(3));
+                switch (random.nextInt(5)) {
+                    case 0 -> assertSame(find(expected, id), wrapped.get(id));
+                    case 1 -> assertEquals(expected.contains(data), wrapped.has(data));
+                    case 2 -> {
+                        wrapped.remove(data);
+                        expected.remove(data);
+                    }
+                    case 3 -> {
+                        wrapped.remove(id);
+                        expected.removeIf(entityData -> entityData.id() == id);
+                    }
+                    default -> {
+                        wrapped.add(data);
+                        expected.add(data);
+                    }
+                }
+                assertEquals(expected, wrapped.entityDataList());
+            }
+
+            for (int id = -1; id < 30; id++) {
+                assertSame(find(expected, id), wrapped.get(id));
+            }
+        }
+    }
+
+    @Test
+    void findsFirstEntryOfDuplicateIds() {
+        final List<EntityData> list = new ArrayList<>();
+        for (int i = 0; i < 12; i++) {
+            list.add(data(i, 0));
+        }
+        final EntityData first = data(3, 1);
+        final EntityData second = data(3, 2);
+        list.add(0, first);
+        list.add(second);
+
+        final WrappedEntityData wrapped = new WrappedEntityData(list);
+        assertSame(first, wrapped.get(3));
+        wrapped.remove(first);
+        assertEquals(data(3, 0), wrapped.get(3));
+        wrapped.remove(3);
+        assertNull(wrapped.get(3));
+    }
+
+    @Test
+    void comparesByList() {
+        final List<EntityData> list = new ArrayList<>(List.of(data(0, 1), data(1, 1)));
+        final WrappedEntityData wrapped = new WrappedEntityData(list);
+        wrapped.get(0);
+
+        assertEquals(new WrappedEntityData(new ArrayList<>(list)), wrapped);
+        assertEquals(new WrappedEntityData(new ArrayList<>(list)).hashCode(), wrapped.hashCode());
+        assertNotEquals(new WrappedEntityData(List.of(data(0, 1))), wrapped);
+    }
+
+    private static EntityData data(final int id, final int value) {
+        return new EntityData(id, Types1_14.ENTITY_DATA_TYPES.varIntType, value);
+    }
+
+    private static @Nullable EntityData find(final List<EntityData> list, final int id) {
+        for (final EntityData data : list) {
+            if (data.id() == id) {
+                return data;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,138 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import io.netty.buffer.ByteBuf;
+import io.netty.buffer.Unpooled;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ChunkTranslationCacheTest {
+
+    private static final int SECTION_HEIGHT = 24;
+    private static final int BIOMES_SENT = 64;
+    private final Random random = new Random(0);
+
+    @Test
+    void returnsCachedTranslationOfEqualInput() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(1 << 20);
+        final byte[] input = bytes(1000);
+        final byte[] output = bytes(800);
+        cache.put(key(Unpooled.wrappedBuffer(input)), input, output);
+
+        // Equal content in a different buffer, offset like a payload after the packet id
+        final ByteBuf packet = Unpooled.buffer();
+        packet.writeByte(0x27);
+        packet.writeBytes(input);
+        packet.readByte();
+        assertArrayEquals(output, cache.get(key(packet), packet));
+        assertEquals(1, packet.readerIndex());
+        assertEquals(1, cache.hits());
+        assertEquals(0, cache.misses());
+    }
+
+    @Test
+    void comparesInputOfMatchingKeys() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(1 << 20);
+        final byte[] input = bytes(1000);
+        final ChunkTranslationCache.Key key = key(Unpooled.wrappedBuffer(input));
+        cache.put(key, input, bytes(800));
+
+        // Same hash and length, e.g. on a collision, but different content
+        final byte[] otherInput = input.clone();
+        otherInput[500]++;
+        assertNull(cache.get(key, Unpooled.wrappedBuffer(otherInput)));
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void separatesTranslationState() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(1 << 20);
+        final byte[] input = bytes(1000);
+        final ByteBuf buf = Unpooled.wrappedBuffer(input);
+        cache.put(key(buf), input, bytes(800));
+
+        assertNull(cache.get(ChunkTranslationCache.key(buf, null, null, SECTION_HEIGHT + 1, BIOMES_SENT), buf));
+        assertNull(cache.get(ChunkTranslationCache.key(buf, null, null, SECTION_HEIGHT, BIOMES_SENT + 1), buf));
+    }
+
+    @Test
+    void staysWithinBudget() {
+        final long maxBytes = 64 * 1024;
+        final ChunkTranslationCache cache = new ChunkTranslationCache(maxBytes);
+        for (int i = 0; i < 500; i++) {
+            final byte[] input = bytes(600);
+            cache.put(key(Unpooled.wrappedBuffer(input)), input, bytes(400));
+            assertTrue(cache.bytes() <= maxBytes, "bytes " + cache.bytes());
+        }
+        assertTrue(cache.size() < 500);
+        assertEquals(cache.size() * 1000L, cache.bytes());
+    }
+
+    @Test
+    void keepsRecentlyUsedEntries() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(64 * 1024);
+        final byte[] input = bytes(600);
+        final byte[] output = bytes(400);
+        final ByteBuf buf = Unpooled.wrappedBuffer(input);
+        cache.put(key(buf), input, output);
+
+        for (int i = 0; i < 500; i++) {
+            assertArrayEquals(output, cache.get(key(buf), buf));
+            final byte[] otherInput = bytes(600);
+            cache.put(key(Unpooled.wrappedBuffer(otherInput)), otherInput, bytes(400));
+        }
+        assertArrayEquals(output, cache.get(key(buf), buf));
+    }
+
+    @Test
+    void skipsEntriesLargerThanStripe() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(16 * 1000);
+        final byte[] input = bytes(1000);
+        cache.put(key(Unpooled.wrappedBuffer(input)), input, bytes(1000));
+        assertEquals(0, cache.size());
+    }
+
+    @Test
+    void clears() {
+        final ChunkTranslationCache cache = new ChunkTranslationCache(1 << 20);
+        final byte[] input = bytes(1000);
+        cache.put(key(Unpooled.wrappedBuffer(input)), input, bytes(800));
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals(0, cache.bytes());
+        assertNull(cache.get(key(Unpooled.wrappedBuffer(input)), Unpooled.wrappedBuffer(input)));
+    }
+
+    private static ChunkTranslationCache.Key key(final ByteBuf input) {
+        // Protocol instances only take part in equality
+        return ChunkTranslationCache.key(input, null, null, SECTION_HEIGHT, BIOMES_SENT);
+    }
+
+    private byte[] bytes(final int length) {
+        final byte[] bytes = new byte[length];
+        random.nextBytes(bytes);
+        return bytes;
+    }
+}
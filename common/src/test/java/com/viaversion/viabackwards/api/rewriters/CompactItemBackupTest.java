@@ -0,0 +1,157 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.nbt.tag.ByteArrayTag;
+import com.viaversion.nbt.tag.ByteTag;
+import com.viaversion.nbt.tag.CompoundTag;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertInstanceOf;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class CompactItemBackupTest {
+
+    private static final BackupTagKeys KEYS = new BackupTagKeys("VB|Protocol1_13To1_12_2");
+    private static final int[] IDS = {0, 1, 127, 128, 16383, 16384, Integer.MAX_VALUE, -1, Integer.MIN_VALUE};
+    private static final short[] DATA = {0, 1, 255, Short.MAX_VALUE, -1, Short.MIN_VALUE};
+
+    @Test
+    void roundTripsEveryCombination() {
+        for (int flags = 1; flags < 16; flags++) {
+            for (final int id : IDS) {
+                for (final short data : DATA) {
+                    final CompoundTag tag = backupTag(flags, id, data);
+                    final CompoundTag original = tag.copy();
+
+                    CompactItemBackup.pack(tag, tag.getCompoundTag("display"), KEYS);
+                    assertPacked(tag);
+
+                    CompactItemBackup.unpack(tag, KEYS);
+                    assertEquals(original, tag, "flags " + flags + ", id " + id + ", data " + data);
+                }
+            }
+        }
+    }
+
+    @Test
+    void keepsOtherTags() {
+        final CompoundTag tag = backupTag(0b1111, 5, (short) 3);
+        tag.putString("other", "value");
+        tag.getCompoundTag("display").putString("Name", "name");
+        final CompoundTag original = tag.copy();
+
+        CompactItemBackup.pack(tag, tag.getCompoundTag("display"), KEYS);
+        assertEquals("value", tag.getStringTag("other").getValue());
+        assertEquals("name", tag.getCompoundTag("display").getStringTag("Name").getValue());
+
+        CompactItemBackup.unpack(tag, KEYS);
+        assertEquals(original, tag);
+    }
+
+    @Test
+    void ignoresTagsWithoutBackup() {
+        final CompoundTag tag = new CompoundTag();
+        tag.putString("other", "value");
+        final CompoundTag original = tag.copy();
+
+        CompactItemBackup.pack(tag, null, KEYS);
+        assertEquals(original, tag);
+
+        CompactItemBackup.unpack(tag, KEYS);
+        assertEquals(original, tag);
+    }
+
+    @Test
+    void ignoresOtherPrefixes() {
+        final CompoundTag tag = backupTag(0b1111, 5, (short) 3);
+        CompactItemBackup.pack(tag, tag.getCompoundTag("display"), KEYS);
+        final CompoundTag packed = tag.copy();
+
+        CompactItemBackup.unpack(tag, new BackupTagKeys("VB|Protocol1_12To1_11_1"));
+        assertEquals(packed, tag);
+    }
+
+    @Test
+    void ignoresUnknownFormat() {
+        final CompoundTag tag = new CompoundTag();
+        tag.put(KEYS.key("backup"), new ByteArrayTag(new byte[]{2, 1, 5}));
+        final CompoundTag original = tag.copy();
+
+        CompactItemBackup.unpack(tag, KEYS);
+        assertEquals(original, tag);
+    }
+
+    @Test
+    void keepsPrefixMarker() {
+        // Rewriters like the 1.19 one mark items they changed with the bare prefix
+        final CompoundTag tag = backupTag(0b0001, 5, (short) 0);
+        tag.putBoolean(KEYS.prefix(), true);
+        final CompoundTag original = tag.copy();
+
+        CompactItemBackup.pack(tag, null, KEYS);
+        assertInstanceOf(ByteTag.class, tag.get(KEYS.prefix()));
+        assertInstanceOf(ByteArrayTag.class, tag.get(KEYS.key("backup")));
+
+        CompactItemBackup.unpack(tag, KEYS);
+        assertEquals(original, tag);
+    }
+
+    @Test
+    void keepsExistingCompactTag() {
+        final CompoundTag tag = backupTag(0b0001, 5, (short) 0);
+        CompactItemBackup.pack(tag, null, KEYS);
+        final CompoundTag packed = tag.copy();
+
+        // Translated a second time, e.g. when sent back and forth without being unpacked
+        tag.putInt(KEYS.key("id"), 6);
+        CompactItemBackup.pack(tag, null, KEYS);
+        assertEquals(packed.get(KEYS.key("backup")), tag.get(KEYS.key("backup")));
+    }
+
+    private static CompoundTag backupTag(final int flags, final int id, final short data) {
+        // Same values as written by the item rewriters
+        final CompoundTag tag = new CompoundTag();
+        final CompoundTag display = new CompoundTag();
+        tag.put("display", display);
+        if ((flags & 1) != 0) {
+            tag.putInt(KEYS.key("id"), id);
+        }
+        if ((flags & 1 << 1) != 0) {
+            tag.putShort(KEYS.key("data"), data);
+        }
+        if ((flags & 1 << 2) != 0) {
+            display.put(KEYS.key("customName"), new ByteTag(false));
+        }
+        if ((flags & 1 << 3) != 0) {
+            tag.putBoolean(KEYS.key("added_custom_name"), true);
+        }
+        return tag;
+    }
+
+    private static void assertPacked(final CompoundTag tag) {
+        assertInstanceOf(ByteArrayTag.class, tag.get(KEYS.key("backup")));
+        assertFalse(tag.contains(KEYS.key("id")));
+        assertFalse(tag.contains(KEYS.key("data")));
+        assertFalse(tag.contains(KEYS.key("added_custom_name")));
+        assertFalse(tag.getCompoundTag("display").contains(KEYS.key("customName")));
+        assertTrue(tag.getCompoundTag("display").isEmpty());
+    }
+}
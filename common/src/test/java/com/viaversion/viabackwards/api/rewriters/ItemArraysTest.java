@@ -0,0 +1,115 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.api.rewriters;
+
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.nbt.tag.StringTag;
+import com.viaversion.viaversion.api.minecraft.item.DataItem;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.UnaryOperator;
+import org.checkerframework.checker.nullness.qual.Nullable;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+final class ItemArraysTest {
+
+    @Test
+    void matchesHandlingEveryItem() {
+        final Random random = new Random(0);
+        for (int run = 0; run < 200; run++) {
+            final Item[] items = new Item[random.nextInt(64)];
+            for (int i = 0; i < items.length; i++) {
+                // Few distinct items, so most arrays contain duplicates
+                items[i] = random.nextInt(8) == 0 ? null : item(random.nextInt(4), random.nextBoolean() ? "name" + random.nextInt(2) : null);
+            }
+
+            final Item[] expected = new Item[items.length];
+            for (int i = 0; i < items.length; i++) {
+                expected[i] = translate(items[i] != null ? items[i].copy() : null);
+            }
+
+            ItemArrays.handleDeduplicated(items, ItemArraysTest::translate);
+            assertArrayEquals(expected, items);
+        }
+    }
+
+    @Test
+    void translatesDistinctItemsOnce() {
+        final Item[] items = {item(1, null), item(2, "a"), item(1, null), null, item(2, "a"), null, item(2, "b")};
+        final AtomicInteger calls = new AtomicInteger();
+        ItemArrays.handleDeduplicated(items, item -> {
+            calls.incrementAndGet();
+            return translate(item);
+        });
+
+        // (1), (2, a), null, (2, b)
+        assertEquals(4, calls.get());
+        assertEquals(translate(item(1, null)), items[2]);
+        assertEquals(translate(item(2, "a")), items[4]);
+        assertNull(items[5]);
+    }
+
+    @Test
+    void copiesDuplicates() {
+        final Item[] items = {item(1, "a"), item(1, "a")};
+        ItemArrays.handleDeduplicated(items, UnaryOperator.identity());
+
+        // Items are modified in place further down the line, so duplicates must not share instances
+        assertNotSame(items[0], items[1]);
+        assertNotSame(items[0].tag(), items[1].tag());
+        assertEquals(items[0], items[1]);
+    }
+
+    @Test
+    void groupsBeforeTranslating() {
+        // The first item turns into the second one, which must still be translated on its own
+        final Item[] items = {item(1, null), item(1001, null), item(1, null)};
+        ItemArrays.handleDeduplicated(items, ItemArraysTest::translate);
+
+        assertArrayEquals(new Item[]{item(1001, "translated"), item(2001, "translated"), item(1001, "translated")}, items);
+    }
+
+    private static Item item(final int id, @Nullable final String name) {
+        final CompoundTag tag = name != null ? new CompoundTag() : null;
+        if (tag != null) {
+            tag.put("name", new StringTag(name));
+        }
+        return new DataItem(id, (byte) 1, (short) 0, tag);
+    }
+
+    private static @Nullable Item translate(@Nullable final Item item) {
+        if (item == null) {
+            return null;
+        }
+
+        // Modifies its input like the actual item handlers
+        item.setIdentifier(item.identifier() + 1000);
+        CompoundTag tag = item.tag();
+        if (tag == null) {
+            item.setTag(tag = new CompoundTag());
+        }
+        tag.put("name", new StringTag("translated"));
+        return item;
+    }
+}
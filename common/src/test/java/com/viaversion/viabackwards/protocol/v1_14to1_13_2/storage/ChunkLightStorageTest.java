@@ -0,0 +1,151 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.protocol.v1_14to1_13_2.storage;
+
+import com.viaversion.viabackwards.protocol.v1_14to1_13_2.storage.ChunkLightStorage.ChunkLight;
+import java.util.Arrays;
+import java.util.Random;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotSame;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class ChunkLightStorageTest {
+
+    private final Random random = new Random(0);
+
+    @Test
+    void roundTripsLight() {
+        final ChunkLightStorage storage = new ChunkLightStorage();
+        final ChunkLight[] lights = new ChunkLight[50];
+        for (int i = 0; i < lights.length; i++) {
+            lights[i] = new ChunkLight(sections(), sections());
+            storage.setStoredLight(lights[i].skyLight(), lights[i].blockLight(), x(i), z(i));
+        }
+
+        assertEquals(lights.length, storage.size());
+        for (int i = 0; i < lights.length; i++) {
+            assertEquals(lights[i], storage.getStoredLight(x(i), z(i)));
+        }
+        assertNull(storage.getStoredLight(1000, 1000));
+    }
+
+    @Test
+    void sharesOnlyUniformLight() {
+        final ChunkLightStorage storage = new ChunkLightStorage();
+        final byte[][] skyLight = new byte[16][];
+        skyLight[0] = filled(0);
+        skyLight[1] = filled(0xFF);
+        skyLight[2] = light();
+        storage.setStoredLight(skyLight, new byte[16][], 0, 0);
+
+        final ChunkLight light = storage.getStoredLight(0, 0);
+        assertSame(ChunkLightStorage.EMPTY_LIGHT, light.skyLight()[0]);
+        assertSame(ChunkLightStorage.FULL_LIGHT, light.skyLight()[1]);
+        assertNull(light.skyLight()[3]);
+        assertNull(light.blockLight()[0]);
+
+        // Other sections are written into the chunk afterwards and must not alias the stored slots
+        light.skyLight()[2][0]++;
+        assertNotSame(light.skyLight()[2], storage.getStoredLight(0, 0).skyLight()[2]);
+        assertArrayEquals(skyLight[2], storage.getStoredLight(0, 0).skyLight()[2]);
+    }
+
+    @Test
+    void reusesSlotsOfUnloadedChunks() {
+        final ChunkLightStorage storage = new ChunkLightStorage();
+        storage.setStoredLight(sections(), sections(), 0, 0);
+        storage.setStoredLight(sections(), sections(), 1, 1);
+        storage.unloadChunk(1, 1);
+        final long allocatedBytes = storage.allocatedBytes();
+
+        for (int i = 0; i < 100; i++) {
+            final ChunkLight light = new ChunkLight(sections(), sections());
+            storage.setStoredLight(light.skyLight(), light.blockLight(), 1, 1);
+            assertEquals(light, storage.getStoredLight(1, 1));
+            storage.unloadChunk(1, 1);
+            assertNull(storage.getStoredLight(1, 1));
+        }
+        assertEquals(allocatedBytes, storage.allocatedBytes());
+    }
+
+    @Test
+    void replacesLightOfSameChunk() {
+        final ChunkLightStorage storage = new ChunkLightStorage();
+        for (int i = 0; i < 100; i++) {
+            final ChunkLight light = new ChunkLight(sections(), sections());
+            storage.setStoredLight(light.skyLight(), light.blockLight(), 5, -5);
+            assertEquals(light, storage.getStoredLight(5, -5));
+
+            // The previous light is only freed after the new one is stored
+            assertTrue(storage.allocatedBytes() <= 2 * 32 * 2048, "allocated " + storage.allocatedBytes());
+        }
+        assertEquals(1, storage.size());
+    }
+
+    @Test
+    void freesEverythingOnceEmpty() {
+        final ChunkLightStorage storage = new ChunkLightStorage();
+        for (int i = 0; i < 10; i++) {
+            storage.setStoredLight(sections(), sections(), x(i), z(i));
+        }
+        for (int i = 0; i < 10; i++) {
+            storage.unloadChunk(x(i), z(i));
+        }
+
+        assertEquals(0, storage.size());
+        assertEquals(0, storage.allocatedBytes());
+    }
+
+    private static int x(final int i) {
+        return i % 2 == 0 ? i : -i;
+    }
+
+    private static int z(final int i) {
+        return i * 31 - 700;
+    }
+
+    private byte[][] sections() {
+        final byte[][] sections = new byte[16][];
+        for (int i = 0; i < sections.length; i++) {
+            sections[i] = switch (random.nextInt(5)) {
+                case 0 -> null;
+                case 1 -> filled(0);
+                case 2 -> filled(0xFF);
+                default -> light();
+            };
+        }
+        return sections;
+    }
+
+    private byte[] light() {
+        final byte[] light = new byte[2048];
+        random.nextBytes(light);
+        return light;
+    }
+
+    private static byte[] filled(final int value) {
+        final byte[] light = new byte[2048];
+        Arrays.fill(light, (byte) value);
+        return light;
+    }
+}
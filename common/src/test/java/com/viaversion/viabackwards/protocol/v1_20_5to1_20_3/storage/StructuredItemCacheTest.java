@@ -0,0 +1,93 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.protocol.v1_20_5to1_20_3.storage;
+
+import com.viaversion.nbt.tag.CompoundTag;
+import com.viaversion.viaversion.api.minecraft.item.DataItem;
+import com.viaversion.viaversion.api.minecraft.item.Item;
+import com.viaversion.viaversion.api.minecraft.item.StructuredItem;
+import java.nio.ByteBuffer;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+final class StructuredItemCacheTest {
+
+    @Test
+    void fingerprintIgnoresAmount() {
+        final StructuredItemCache cache = new StructuredItemCache(10);
+        final Item item = new StructuredItem(5, 64);
+        final ByteBuffer fingerprint = cache.fingerprint(item);
+
+        assertEquals(fingerprint, cache.fingerprint(new StructuredItem(5, 1)));
+        assertNotEquals(fingerprint, cache.fingerprint(new StructuredItem(6, 64)));
+        assertEquals(64, item.amount());
+    }
+
+    @Test
+    void returnsCopiesWithAmount() {
+        final StructuredItemCache cache = new StructuredItemCache(10);
+        final ByteBuffer fingerprint = cache.fingerprint(new StructuredItem(5, 1));
+        final Item converted = legacyItem(1);
+        cache.put(fingerprint, converted);
+
+        // Neither the stored nor the returned items may be modified through each other
+        converted.tag().putString("changed", "after put");
+        final Item item = cache.get(fingerprint, 16);
+        assertNotNull(item);
+        assertEquals(16, item.amount());
+        assertEquals(legacyItem(16), item);
+
+        item.tag().putString("changed", "after get");
+        assertEquals(legacyItem(3), cache.get(fingerprint, 3));
+    }
+
+    @Test
+    void evictsLeastRecentlyUsed() {
+        final StructuredItemCache cache = new StructuredItemCache(2);
+        final ByteBuffer first = cache.fingerprint(new StructuredItem(1, 1));
+        final ByteBuffer second = cache.fingerprint(new StructuredItem(2, 1));
+        final ByteBuffer third = cache.fingerprint(new StructuredItem(3, 1));
+        cache.put(first, legacyItem(1));
+        cache.put(second, legacyItem(1));
+        cache.get(first, 1);
+        cache.put(third, legacyItem(1));
+
+        assertNotNull(cache.get(first, 1));
+        assertNull(cache.get(second, 1));
+        assertNotNull(cache.get(third, 1));
+    }
+
+    @Test
+    void clears() {
+        final StructuredItemCache cache = new StructuredItemCache(10);
+        final ByteBuffer fingerprint = cache.fingerprint(new StructuredItem(5, 1));
+        cache.put(fingerprint, legacyItem(1));
+        cache.clear();
+        assertNull(cache.get(fingerprint, 1));
+    }
+
+    private static Item legacyItem(final int amount) {
+        final CompoundTag tag = new CompoundTag();
+        tag.putString("name", "value");
+        return new DataItem(7, (byte) amount, (short) 0, tag);
+    }
+}
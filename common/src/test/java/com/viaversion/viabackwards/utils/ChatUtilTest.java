@@ -0,0 +1,200 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.utils;
+
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Random;
+import java.util.Set;
+import java.util.regex.Pattern;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+final class ChatUtilTest {
+
+    private static final char SECTION = '\u00a7';
+    private static final String ALPHABET = "0123456789abcdefklmnorAZ:@_`x \n\r";
+
+    @Test
+    void keepsCodesOfTheFormerColorRange() {
+        // [0-f] includes punctuation and uppercase letters between '0' and 'f'
+        assertEquals(s("&:text"), ChatUtil.fromLegacy(s("&:text"), 'f', 32));
+        assertEquals(s("&Atext"), ChatUtil.fromLegacy(s("&Atext"), 'f', 32));
+        assertEquals(s("&kmagic"), ChatUtil.fromLegacy(s("&kmagic"), 'f', 32));
+    }
+
+    @Test
+    void removesCodesBeforeTrailingLineTerminator() {
+        // \Z also matches before a single trailing line terminator
+        assertEquals(s("&atext\n"), ChatUtil.fromLegacy(s("&atext&l\n"), 'f', 32));
+        assertEquals(s("&atext\r\n"), ChatUtil.fromLegacy(s("&atext&l\r\n"), 'f', 32));
+        assertEquals(s("&atext&a&l\n\n"), ChatUtil.fromLegacy(s("&atext&l\n\n"), 'f', 32));
+    }
+
+    @Test
+    void writesFormattingInFixedOrder() {
+        assertEquals(s("&f&l&m&n&otext"), ChatUtil.fromLegacy(s("&o&n&m&ltext"), 'f', 32));
+    }
+
+    @Test
+    void removesOverriddenCodes() {
+        assertEquals(s("&ctext"), ChatUtil.fromLegacy(s("&a&b&ctext"), 'f', 32));
+        assertEquals("text", ChatUtil.fromLegacy(s("&l&a&rtext"), 'f', 32));
+        assertEquals("white", ChatUtil.fromLegacy(s("&fwhite"), 'f', 32));
+        assertEquals(s("&fwhite"), ChatUtil.fromLegacy(s("&fwhite"), '\0', 16));
+    }
+
+    @Test
+    void trimsSectionSigns() {
+        assertEquals("text", ChatUtil.fromLegacy(s("text&"), 'f', 32));
+        assertEquals("abcdefghijklmno", ChatUtil.fromLegacy(s("abcdefghijklmno&atext"), 'f', 16));
+    }
+
+    @Test
+    void keepsTrailingStateOfPrefixes() {
+        assertEquals(s("&a&l"), ChatUtil.fromLegacyPrefix(s("&a&l"), 'f', 16));
+        assertEquals(s("&a&lname&f"), ChatUtil.fromLegacyPrefix(s("&a&lname&r"), 'f', 16));
+    }
+
+    @Test
+    void matchesRegexImplementation() {
+        final Random random = new Random(0);
+        final StringBuilder builder = new StringBuilder();
+        for (int i = 0; i < 200_000; i++) {
+            builder.setLength(0);
+            final int length = random.nextInt(16);
+            for (int j = 0; j < length; j++) {
+                builder.append(random.nextInt(3) == 0 ? SECTION : ALPHABET.charAt(random.nextInt(ALPHABET.length())));
+            }
+
+            final String legacy = builder.toString();
+            final char defaultColor = random.nextBoolean() ? 'f' : '\0';
+            final int limit = 4 + random.nextInt(16);
+            assertEquals(RegexColorNormalizer.fromLegacy(legacy, defaultColor, limit, false), ChatUtil.fromLegacy(legacy, defaultColor, limit), legacy);
+            assertEquals(RegexColorNormalizer.fromLegacy(legacy, defaultColor, limit, true), ChatUtil.fromLegacyPrefix(legacy, defaultColor, limit), legacy);
+        }
+    }
+
+    private static String s(final String text) {
+        return text.replace('&', SECTION);
+    }
+
+    /**
+     * The regex based implementation that was replaced by the single pass normalizer.
+     */
+    private static final class RegexColorNormalizer {
+        private static final Pattern UNUSED_COLOR_PATTERN = Pattern.compile("(?>(?>\u00a7[0-fk-or])*(\u00a7r|\\Z))|(?>(?>\u00a7[0-f])*(\u00a7[0-f]))");
+        private static final Pattern UNUSED_COLOR_PATTERN_PREFIX = Pattern.compile("(?>(?>\u00a7[0-fk-or])*(\u00a7r))|(?>(?>\u00a7[0-f])*(\u00a7[0-f]))");
+
+        private static String fromLegacy(String legacy, char defaultColor, int limit, boolean isPrefix) {
+            legacy = removeUnusedColor(legacy, defaultColor, isPrefix);
+            if (legacy.length() > limit) legacy = legacy.substring(0, limit);
+            if (legacy.endsWith("\u00a7")) legacy = legacy.substring(0, legacy.length() - 1);
+            return legacy;
+        }
+
+        private static String removeUnusedColor(String legacy, char defaultColor, boolean isPrefix) {
+            Pattern pattern = isPrefix ? UNUSED_COLOR_PATTERN_PREFIX : UNUSED_COLOR_PATTERN;
+            legacy = pattern.matcher(legacy).replaceAll("$1$2");
+            StringBuilder builder = new StringBuilder();
+            ChatFormattingState builderState = new ChatFormattingState(defaultColor);
+            ChatFormattingState lastState = new ChatFormattingState(defaultColor);
+            for (int i = 0; i < legacy.length(); i++) {
+                char current = legacy.charAt(i);
+                if (current != '\u00a7' || i == legacy.length() - 1) {
+                    if (!lastState.equals(builderState)) {
+                        lastState.appendTo(builder);
+                        builderState = lastState.copy();
+                    }
+                    builder.append(current);
+                    continue;
+                }
+                current = legacy.charAt(++i);
+                lastState.processNextControlChar(current);
+            }
+            if (isPrefix && !lastState.equals(builderState)) {
+                lastState.appendTo(builder);
+            }
+            return builder.toString();
+        }
+    }
+
+    private static final class ChatFormattingState {
+        private final Set<Character> formatting;
+        private final char defaultColor;
+        private char color;
+
+        private ChatFormattingState(char defaultColor) {
+            this(new HashSet<>(), defaultColor, defaultColor);
+        }
+
+        private ChatFormattingState(Set<Character> formatting, char defaultColor, char color) {
+            this.formatting = formatting;
+            this.defaultColor = defaultColor;
+            this.color = color;
+        }
+
+        private void setColor(char newColor) {
+            formatting.clear();
+            color = newColor;
+        }
+
+        private ChatFormattingState copy() {
+            return new ChatFormattingState(new HashSet<>(formatting), defaultColor, color);
+        }
+
+        private void appendTo(StringBuilder builder) {
+            builder.append('\u00a7').append(color);
+            for (Character formatCharacter : formatting) {
+                builder.append('\u00a7').append(formatCharacter);
+            }
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) {
+                return true;
+            }
+            if (o == null || getClass() != o.getClass()) {
+                return false;
+            }
+            ChatFormattingState that = (ChatFormattingState) o;
+            return defaultColor == that.defaultColor
+                && color == that.color
+                && Objects.equals(formatting, that.formatting);
+        }
+
+        @Override
+        public int hashCode() {
+            return Objects.hash(formatting, defaultColor, color);
+        }
+
+        private void processNextControlChar(char controlChar) {
+            if (controlChar == 'r') {
+                setColor(defaultColor);
+                return;
+            }
+            if (controlChar == 'l' || controlChar == 'm' || controlChar == 'n' || controlChar == 'o') {
+                formatting.add(controlChar);
+                return;
+            }
+            setColor(controlChar);
+        }
+    }
+}
@@ -0,0 +1,127 @@
+/*
+ * This file is part of ViaBackwards - https://github.com/ViaVersion/ViaBackwards
+ * Copyright (C) 2016-2024 ViaVersion and contributors
+ *
+ * This program is free software: you can redistribute it and/or modify
+ * it under the terms of the GNU General Public License as published by
+ * the Free Software Foundation, either version 3 of the License, or
+ * (at your option) any later version.
+ *
+ * This program is distributed in the hope that it will be useful,
+ * but WITHOUT ANY WARRANTY; without even the implied warranty of
+ * MERCHANTABILITY or FITNESS FOR A PARTICULAR PURPOSE.  See the
+ * GNU General Public License for more details.
+ *
+ * You should have received a copy of the GNU General Public License
+ * along with this program.  If not, see <http://www.gnu.org/licenses/>.
+ */
+package com.viaversion.viabackwards.utils;
+
+import com.viaversion.viabackwards.utils.TextConversionCache.Conversion;
+import com.viaversion.viabackwards.utils.TextConversionCache.Key;
+import com.viaversion.viaversion.util.SerializerVersion;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+final class TextConversionCacheTest {
+
+    @Test
+    void convertsOnce() {
+        final TextConversionCache cache = new TextConversionCache(100);
+        final AtomicInteger conversions = new AtomicInteger();
+        for (int i = 0; i < 10; i++) {
+            assertEquals("converted", cache.get(key("green name"), () -> {
+                conversions.incrementAndGet();
+                return "converted";
+            }));
+        }
+
+        assertEquals(1, conversions.get());
+        assertEquals(9, cache.hits());
+        assertEquals(1, cache.misses());
+    }
+
+    @Test
+    void separatesConversionsVersionsAndArguments() {
+        final TextConversionCache cache = new TextConversionCache(100);
+        cache.get(new Key(Conversion.JSON_STRING, SerializerVersion.V1_12, "green name", null), () -> "json string");
+        assertEquals("item json string", cache.get(new Key(Conversion.ITEM_JSON_STRING, SerializerVersion.V1_12, "green name", null), () -> "item json string"));
+        assertEquals("with translation", cache.get(new Key(Conversion.JSON_STRING, SerializerVersion.V1_12, "green name", "key"), () -> "with translation"));
+        assertEquals("newer json string", cache.get(new Key(Conversion.JSON_STRING, SerializerVersion.V1_20_3, "green name", null), () -> "newer json string"));
+        assertEquals("json string", cache.get(new Key(Conversion.JSON_STRING, SerializerVersion.V1_12, "green name", null), () -> "other"));
+        assertEquals(4, cache.size());
+    }
+
+    @Test
+    void staysBounded() {
+        final TextConversionCache cache = new TextConversionCache(100);
+        for (int i = 0; i < 10000; i++) {
+            cache.get(key("name " + i), () -> "value");
+            assertTrue(cache.size() <= 100, "size " + cache.size());
+        }
+    }
+
+    @Test
+    void keepsFrequentlyUsedEntries() {
+        final TextConversionCache cache = new TextConversionCache(100);
+        final AtomicInteger conversions = new AtomicInteger();
+        for (int i = 0; i < 10000; i++) {
+            cache.get(key("frequent"), () -> "value " + conversions.incrementAndGet());
+            cache.get(key("name " + i), () -> "value");
+        }
+        assertEquals(1, conversions.get());
+    }
+
+    @Test
+    void handlesConcurrentUse() throws Exception {
+        final int maxEntries = 1000;
+        final TextConversionCache cache = new TextConversionCache(maxEntries);
+        final ExecutorService executor = Executors.newFixedThreadPool(8);
+        try {
+            final List<Future<?>> futures = new ArrayList<>();
+            for (int thread = 0; thread < 8; thread++) {
+                futures.add(executor.submit(() -> {
+                    final ThreadLocalRandom random = ThreadLocalRandom.current();
+                    for (int i = 0; i < 100000; i++) {
+                        // Mostly a small set of common names, with some rarely repeated ones
+                        final String input = "name " + (random.nextInt(10) < 8 ? random.nextInt(500) : 1000 + random.nextInt(100000));
+                        assertEquals("converted " + input, cache.get(key(input), () -> "converted " + input));
+                    }
+                    return null;
+                }));
+            }
+            for (final Future<?> future : futures) {
+                future.get();
+            }
+        } finally {
+            executor.shutdown();
+        }
+
+        assertTrue(cache.size() <= maxEntries, "size " + cache.size());
+        assertEquals(800000, cache.hits() + cache.misses());
+        assertTrue(cache.hits() > cache.misses());
+    }
+
+    @Test
+    void clears() {
+        final TextConversionCache cache = new TextConversionCache(100);
+        cache.get(key("name"), () -> "value");
+        cache.clear();
+
+        assertEquals(0, cache.size());
+        assertEquals("new value", cache.get(key("name"), () -> "new value"));
+    }
+
+    private static Key key(final String input) {
+        return new Key(Conversion.JSON_STRING, SerializerVersion.V1_12, input, null);
+    }
+}
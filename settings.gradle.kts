@@ -16,6 +16,7 @@ pluginManagement {
         id("net.kyori.blossom") version "2.1.0"
         id("org.jetbrains.gradle.plugin.idea-ext") version "1.1.7"
         id("com.gradleup.shadow") version "8.3.0"
+        id("me.champeau.jmh") version "0.7.2"
     }
 }
 
@@ -26,6 +27,7 @@ setupViaSubproject("bukkit")
 setupViaSubproject("velocity")
 setupViaSubproject("fabric")
 setupViaSubproject("template")
+setupViaSubproject("benchmarks")
 
 setupSubproject("viabackwards") {
     projectDir = file("universal")